@@ -0,0 +1,57 @@
+package com.example.api.application.user;
+
+import com.example.api.domain.enums.AuthProvider;
+import com.example.api.domain.model.User;
+import com.example.api.domain.model.UserProvider;
+import com.example.api.domain.repository.UserResponseRow;
+import com.example.api.web.dto.response.UserResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem do {@link UserResponse} servido em GET /users/me:
+ * a partir do grafo de entidades (User + providers) vs. das linhas da projeção JPQL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    private UserService userService;
+    private User user;
+    private List<UserResponseRow> rows;
+
+    @Setup
+    public void setup() {
+        userService = new UserService(null, null, null);
+        user = User.builder()
+            .id(42L).name("Bench User").email("bench@example.com")
+            .photoUrl("https://example.com/photo.png")
+            .build();
+        for (AuthProvider provider : AuthProvider.values()) {
+            user.addProvider(UserProvider.builder()
+                .provider(provider).providerId(provider.name().toLowerCase() + "-42")
+                .accessToken("provider-access-token").build());
+        }
+        rows = Arrays.stream(AuthProvider.values())
+            .map(p -> new UserResponseRow(42L, "Bench User", "bench@example.com",
+                "https://example.com/photo.png", p))
+            .toList();
+    }
+
+    @Benchmark
+    public UserResponse toResponse() {
+        return userService.toResponse(user);
+    }
+
+    @Benchmark
+    public UserResponse fromProjectionRows() {
+        return UserService.toResponse(rows);
+    }
+}
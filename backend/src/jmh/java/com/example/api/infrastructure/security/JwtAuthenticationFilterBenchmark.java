@@ -0,0 +1,71 @@
+package com.example.api.infrastructure.security;
+
+import com.example.api.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadeia completa do {@link JwtAuthenticationFilter} para uma requisição autenticada.
+ * O modo com banco usa um UserDetailsService em memória — mede só o overhead do
+ * filtro, não a latência do MySQL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean stateless;
+
+    @Param({"false", "true"})
+    public boolean cacheEnabled;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private final FilterChain chain = (req, res) -> SecurityContextHolder.clearContext();
+
+    @Setup
+    public void setup() {
+        JwtService jwtService = new JwtService(
+            "benchmark-secret-key-minimo-32-caracteres", 900_000, 604_800_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(
+            jwtService, new SimpleMeterRegistry(), cacheEnabled, 10_000);
+
+        UserDetails stored = org.springframework.security.core.userdetails.User
+            .withUsername("bench@example.com").password("").roles("USER").build();
+        CustomUserDetailsService inMemory = new CustomUserDetailsService(null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return stored;
+            }
+        };
+
+        filter = new JwtAuthenticationFilter(cache, inMemory);
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+
+        authorization = "Bearer " + jwtService.generateAccessToken(User.builder()
+            .id(42L).name("Bench User").email("bench@example.com").build());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.setServletPath("/api/v1/users/me");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.api.infrastructure.security;
+
+import com.example.api.domain.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações do {@link JwtService} executadas em todo login, refresh e requisição autenticada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+    private String rawRefreshToken;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService("benchmark-secret-key-minimo-32-caracteres", 900_000, 604_800_000);
+        user = User.builder().id(42L).name("Bench User").email("bench@example.com").build();
+        accessToken = jwtService.generateAccessToken(user);
+        rawRefreshToken = jwtService.generateRefreshToken();
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public VerifiedJwt verifyAccessToken() {
+        return jwtService.verify(accessToken);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(accessToken, new JwtPrincipal(42L, "bench@example.com", "Bench User", null));
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken();
+    }
+
+    @Benchmark
+    public String hashRefreshToken() {
+        return jwtService.hashRefreshToken(rawRefreshToken);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.api.infrastructure.security;
+
+import com.example.api.domain.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de verificação de um access token por requisição.
+ * legacyTripleParse reproduz o caminho antigo do filtro (extractUsername +
+ * isTokenValid → 3 parses, cada um construindo um parser novo);
+ * singleParse usa {@link JwtService#verify} com o parser compartilhado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-minimo-32-caracteres";
+
+    private JwtService jwtService;
+    private SecretKey key;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(SECRET, 900_000, 604_800_000);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = jwtService.generateAccessToken(User.builder()
+            .id(42L).name("Bench User").email("bench@example.com").build());
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims().getSubject();
+        return username.equals(legacyClaims().getSubject())
+            && !legacyClaims().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedJwt singleParse() {
+        return jwtService.verify(token);
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parser().verifyWith(key).build()
+            .parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.api.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coleta as latências de uma fase do load test e calcula percentis e throughput.
+ */
+final class LatencyRecorder {
+
+    private final String endpoint;
+    private final ConcurrentLinkedQueue<Long> samplesNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger errors = new AtomicInteger();
+    private long wallNanos;
+
+    LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(long nanos, boolean success) {
+        samplesNanos.add(nanos);
+        if (!success) errors.incrementAndGet();
+    }
+
+    void finish(long wallNanos) {
+        this.wallNanos = wallNanos;
+    }
+
+    static String header() {
+        return String.format("%-34s %8s %7s %10s %10s %10s %12s",
+            "endpoint", "requests", "errors", "p50 (ms)", "p99 (ms)", "max (ms)", "req/s");
+    }
+
+    String summary() {
+        long[] sorted = samplesNanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        double seconds = wallNanos / 1e9;
+        return String.format("%-34s %8d %7d %10.2f %10.2f %10.2f %12.1f",
+            endpoint, sorted.length, errors.get(),
+            percentileMs(sorted, 0.50), percentileMs(sorted, 0.99),
+            sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6,
+            seconds > 0 ? sorted.length / seconds : 0);
+    }
+
+    private static double percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.api.loadtest;
+
+import com.example.api.ApiApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Load test end-to-end da API de autenticação.
+ *
+ * Sobe a aplicação (profile loadtest → H2) apontando os token-uri/user-info-uri
+ * do Google e do Facebook (e o jwks-uri do Google) para o {@link OAuthProviderStub}
+ * local e executa, em sequência, as fases: register → login → oauth/callback →
+ * oauth/callback com cada code enviado duas vezes → refresh → users/me.
+ * Ao final imprime p50/p99/throughput de cada endpoint.
+ *
+ * Parâmetros (system properties):
+ *   loadtest.concurrency          clientes simultâneos          (default 16)
+ *   loadtest.requests             requisições por fase          (default 500)
+ *   loadtest.oauth-users          identidades distintas no OAuth (default 100)
+ *   loadtest.provider-latency-ms  latência simulada do provedor (default 50)
+ */
+public final class LoadTestRunner {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String PASSWORD = "loadtest-password";
+
+    private final int concurrency  = Integer.getInteger("loadtest.concurrency", 16);
+    private final int requests     = Integer.getInteger("loadtest.requests", 500);
+    private final int oauthUsers   = Integer.getInteger("loadtest.oauth-users", 100);
+    private final long providerLatencyMs = Long.getLong("loadtest.provider-latency-ms", 50);
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final List<String> accessTokens  = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<String> refreshTokens = new LinkedBlockingQueue<>();
+    private final List<LatencyRecorder> results = new ArrayList<>();
+
+    private String baseUrl;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestRunner().run();
+    }
+
+    private void run() throws Exception {
+        try (OAuthProviderStub stub = new OAuthProviderStub(providerLatencyMs);
+             ConfigurableApplicationContext ctx = SpringApplication.run(ApiApplication.class, appArgs(stub))) {
+
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            baseUrl = "http://127.0.0.1:" + port + "/api/v1";
+            System.out.printf("%nLoad test: concurrency=%d, requests/fase=%d, latência do provedor=%dms%n%n",
+                concurrency, requests, providerLatencyMs);
+
+            runPhase("POST /auth/register", i -> post("/auth/register", Map.of(
+                    "email", "user-" + i + "@loadtest.local",
+                    "password", PASSWORD,
+                    "name", "User " + i)),
+                this::collectTokens);
+
+            runPhase("POST /auth/login", i -> post("/auth/login", Map.of(
+                    "email", "user-" + (i % Math.max(1, requests)) + "@loadtest.local",
+                    "password", PASSWORD)),
+                this::collectTokens);
+
+            runPhase("POST /auth/oauth/callback", i -> post("/auth/oauth/callback", Map.of(
+                    "provider", i % 2 == 0 ? "google" : "facebook",
+                    "code", "oauth-" + (i % oauthUsers) + "." + i)),   // code único, identidade repetida
+                this::collectTokens);
+
+            // Dupla submissão do mesmo code (dupla navegação / retry do frontend):
+            // cada par concorrente deve custar uma única troca no provedor
+            int exchangesBefore = stub.tokenExchanges();
+            runPhase("POST /auth/oauth/callback (dup)", i -> post("/auth/oauth/callback", Map.of(
+                    "provider", (i / 2) % 2 == 0 ? "google" : "facebook",
+                    "code", "oauth-" + ((i / 2) % oauthUsers) + ".dup-" + (i / 2))),
+                body -> {});
+            int dupExchanges = stub.tokenExchanges() - exchangesBefore;
+
+            runPhase("POST /auth/refresh", i -> post("/auth/refresh", Map.of(
+                    "refreshToken", takeRefreshToken())),
+                this::collectTokens);
+
+            runPhase("GET /users/me", i -> HttpRequest.newBuilder(URI.create(baseUrl + "/users/me"))
+                    .header("Authorization", "Bearer " + accessTokens.get(i % accessTokens.size()))
+                    .GET().build(),
+                body -> {});
+
+            System.out.println(LatencyRecorder.header());
+            results.forEach(r -> System.out.println(r.summary()));
+            System.out.printf("%nuserinfo do Google (fallback do id_token): %d chamadas%n", stub.googleUserInfoCalls());
+            System.out.printf("callbacks duplicados: %d requisições → %d trocas de code no provedor%n",
+                requests, dupExchanges);
+        }
+    }
+
+    // ── fases ─────────────────────────────────────────────────
+
+    private void runPhase(String endpoint, IntFunction<HttpRequest> requestFor,
+                          Consumer<JsonNode> onSuccess) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder(endpoint);
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+
+        long start = System.nanoTime();
+        for (int w = 0; w < concurrency; w++) {
+            pool.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    execute(requestFor.apply(i), recorder, onSuccess);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        recorder.finish(System.nanoTime() - start);
+
+        results.add(recorder);
+        System.out.println("  concluído: " + endpoint);
+    }
+
+    private void execute(HttpRequest request, LatencyRecorder recorder, Consumer<JsonNode> onSuccess) {
+        long t0 = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - t0;
+            boolean ok = response.statusCode() / 100 == 2;
+            recorder.record(elapsed, ok);
+            if (ok && !response.body().isEmpty()) {
+                onSuccess.accept(JSON.readTree(response.body()));
+            }
+        } catch (Exception e) {
+            recorder.record(System.nanoTime() - t0, false);
+        }
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private HttpRequest post(String path, Map<String, String> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void collectTokens(JsonNode body) {
+        accessTokens.add(body.path("accessToken").asText());
+        refreshTokens.add(body.path("refreshToken").asText());
+    }
+
+    private String takeRefreshToken() {
+        try {
+            String token = refreshTokens.poll(10, TimeUnit.SECONDS);
+            if (token == null) throw new IllegalStateException("Nenhum refresh token disponível");
+            return token;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String[] appArgs(OAuthProviderStub stub) {
+        String base = stub.baseUrl();
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.profiles.active=loadtest",
+            "--server.port=0",
+            "--app.jwt.secret=loadtest-secret-key-minimo-32-caracteres",
+            "--app.oauth2.google.client-id=loadtest",
+            "--app.oauth2.google.client-secret=loadtest",
+            "--app.oauth2.google.token-uri=" + base + "/google/token",
+            "--app.oauth2.google.user-info-uri=" + base + "/google/userinfo",
+            "--app.oauth2.google.jwks-uri=file:" + stub.jwksFile(),
+            "--app.oauth2.google.issuers=" + OAuthProviderStub.ISSUER,
+            "--app.oauth2.facebook.client-id=loadtest",
+            "--app.oauth2.facebook.client-secret=loadtest",
+            "--app.oauth2.facebook.token-uri=" + base + "/facebook/token",
+            "--app.oauth2.facebook.user-info-uri=" + base + "/facebook/me?fields=id,name,email,picture.type(large)"
+        ));
+        return args.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.RsaPublicJwk;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local que imita os endpoints de token e userinfo do Google e do Facebook.
+ * A identidade do usuário é derivada do code até o primeiro '.' ("oauth-7.123" → "oauth-7"):
+ * codes distintos da mesma identidade geram o mesmo usuário, então o load test exercita
+ * tanto o cadastro quanto o login de usuários existentes sem repetir codes.
+ *
+ * O token do Google inclui um id_token RS256; a chave pública vai para um JWKS
+ * em arquivo temporário ({@link #jwksFile()}), o stand-in local do endpoint de
+ * certs. googleUserInfoCalls() mostra quantas vezes o fallback foi usado e
+ * tokenExchanges() quantas trocas de code chegaram ao provedor.
+ *
+ * latencyMs simula o tempo de resposta do provedor em cada chamada.
+ */
+final class OAuthProviderStub implements AutoCloseable {
+
+    static final String ISSUER = "https://accounts.loadtest.local";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long latencyMs;
+    private final KeyPair signingKey = Jwts.SIG.RS256.keyPair().build();
+    private final String keyId;
+    private final Path jwksFile;
+    private final AtomicInteger googleUserInfoCalls = new AtomicInteger();
+    private final AtomicInteger tokenExchanges = new AtomicInteger();
+
+    OAuthProviderStub(long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        RsaPublicJwk jwk = Jwks.builder().key((RSAPublicKey) signingKey.getPublic())
+            .idFromThumbprint().build();
+        this.keyId    = jwk.getId();
+        this.jwksFile = Files.createTempFile("loadtest-jwks", ".json");
+        Files.write(jwksFile, JSON.writeValueAsBytes(Map.of("keys", List.of(jwk))));
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/google/token",    ex -> token(ex, "g"));
+        server.createContext("/google/userinfo", this::googleUserInfo);
+        server.createContext("/facebook/token",  ex -> token(ex, "f"));
+        server.createContext("/facebook/me",     this::facebookUserInfo);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    Path jwksFile() {
+        return jwksFile;
+    }
+
+    int googleUserInfoCalls() {
+        return googleUserInfoCalls.get();
+    }
+
+    int tokenExchanges() {
+        return tokenExchanges.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.stop(0);
+        executor.shutdownNow();
+        Files.deleteIfExists(jwksFile);
+    }
+
+    // ── handlers ──────────────────────────────────────────────
+
+    private void token(HttpExchange ex, String prefix) throws IOException {
+        String form = new String(ex.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        tokenExchanges.incrementAndGet();
+        String id = identity(parseQuery(form).get("code"));
+        Map<String, Object> body = new HashMap<>(Map.of(
+            "access_token", prefix + "-" + id,
+            "token_type",   "Bearer",
+            "expires_in",   3599
+        ));
+        if (prefix.equals("g")) body.put("id_token", idToken(id));
+        respond(ex, body);
+    }
+
+    private void googleUserInfo(HttpExchange ex) throws IOException {
+        googleUserInfoCalls.incrementAndGet();
+        String bearer = ex.getRequestHeaders().getFirst("Authorization");
+        String id = bearer.substring("Bearer g-".length());
+        respond(ex, Map.of(
+            "sub",     id,
+            "email",   id + "@google.loadtest.local",
+            "name",    "Google " + id,
+            "picture", "https://example.com/" + id + ".png"
+        ));
+    }
+
+    private void facebookUserInfo(HttpExchange ex) throws IOException {
+        String token = parseQuery(ex.getRequestURI().getRawQuery()).get("access_token");
+        String id = token.substring("f-".length());
+        respond(ex, Map.of(
+            "id",      id,
+            "email",   id + "@facebook.loadtest.local",
+            "name",    "Facebook " + id,
+            "picture", Map.of("data", Map.of("url", "https://example.com/" + id + ".png"))
+        ));
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private String idToken(String id) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+            .header().keyId(keyId).and()
+            .issuer(ISSUER)
+            .audience().add("loadtest").and()
+            .subject(id)
+            .claim("email", id + "@google.loadtest.local")
+            .claim("email_verified", true)
+            .claim("name", "Google " + id)
+            .claim("picture", "https://example.com/" + id + ".png")
+            .issuedAt(Date.from(now))
+            .expiration(Date.from(now.plusSeconds(3600)))
+            .signWith(signingKey.getPrivate())
+            .compact();
+    }
+
+    private void respond(HttpExchange ex, Object body) throws IOException {
+        simulateLatency();
+        byte[] bytes = JSON.writeValueAsBytes(body);
+        ex.getResponseHeaders().set("Content-Type", "application/json");
+        ex.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) return;
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String identity(String code) {
+        int dot = code.indexOf('.');
+        return dot < 0 ? code : code.substring(0, dot);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isBlank()) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            params.put(
+                URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
@@ -6,17 +6,25 @@ import com.example.api.domain.model.*;
 import com.example.api.domain.repository.RefreshTokenRepository;
 import com.example.api.infrastructure.oauth.*;
 import com.example.api.infrastructure.security.JwtService;
+import com.example.api.infrastructure.security.VerifiedTokenCache;
 import com.example.api.web.dto.request.*;
 import com.example.api.web.dto.response.AuthResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -25,31 +33,39 @@ public class AuthService {
 
     private final UserService userService;
     private final JwtService jwtService;
+    private final VerifiedTokenCache tokenCache;
     private final RefreshTokenRepository refreshTokenRepository;
-    private final GoogleOAuthClient googleClient;
-    private final FacebookOAuthClient facebookClient;
+    private final OAuthProviderRegistry oauthProviders;
+    private final OAuthCallbackDeduplicator oauthCallbacks;
     private final AuthenticationManager authenticationManager;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final RefreshTokenPurgeJob refreshTokenPurgeJob;
 
     // ── Login local (email + senha) ───────────────────────────
 
-    @Transactional
     public AuthResponse loginLocal(LoginRequest request) {
-        // Valida credenciais via Spring Security
+        // Valida credenciais via Spring Security — fora de transação: a conexão
+        // JDBC não fica retida enquanto o BCrypt aguarda no pool de hash
         authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(request.email(), request.password())
         );
-        User user = userService.findByEmail(request.email())
-            .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
-        log.info("Login local. userId={}", user.getId());
-        return buildAuthResponse(user);
+        return transactionTemplate.execute(status -> {
+            User user = userService.findByEmail(request.email())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+            log.info("Login local. userId={}", user.getId());
+            return buildAuthResponse(user, newFamily());
+        });
     }
 
     // ── Cadastro local ────────────────────────────────────────
 
-    @Transactional
     public AuthResponse registerLocal(RegisterRequest request) {
-        User user = userService.registerLocal(request.email(), request.password(), request.name());
-        return buildAuthResponse(user);
+        // Hash antes da transação, pelo mesmo motivo do login
+        String encodedPassword = passwordEncoder.encode(request.password());
+        return transactionTemplate.execute(status -> buildAuthResponse(
+            userService.registerLocal(request.email(), encodedPassword, request.name()), newFamily()));
     }
 
     // ── OAuth2 callback ───────────────────────────────────────
@@ -57,83 +73,182 @@ public class AuthService {
     /**
      * Recebe o authorization_code do Angular e:
      * 1. Troca code por access_token no provedor
-     * 2. Busca dados do usuário no provedor
+     * 2. Dados do usuário: id_token verificado localmente, se o provedor
+     *    suportar; senão o endpoint userinfo
      * 3. Busca ou cria usuário interno
      * 4. Emite JWT interno + refresh token
+     *
+     * Passos 1–2 rodam fora de transação: um provedor lento não segura conexão
+     * do pool JDBC. Só 3–4 rodam numa transação curta.
+     * Duração de cada fase: auth.oauth.callback.phase{phase=remote|persist,
+     * outcome=success|error} — falhas também são registradas.
+     *
+     * O mesmo code enviado em paralelo é trocado uma única vez; cada duplicata
+     * recebe uma sessão própria (família e refresh token novos) para o usuário
+     * encontrado pela original — ver {@link OAuthCallbackDeduplicator}.
      */
-    @Transactional
     public AuthResponse processOAuthCallback(OAuthCallbackRequest request) {
-        AuthProvider provider = parseProvider(request.provider());
-
-        OAuthTokenData tokenData;
-        OAuthUserInfo  userInfo;
-
-        switch (provider) {
-            case GOOGLE -> {
-                tokenData = googleClient.exchangeCode(request.code());
-                userInfo  = googleClient.fetchUserInfo(tokenData.accessToken());
-            }
-            case FACEBOOK -> {
-                tokenData = facebookClient.exchangeCode(request.code());
-                userInfo  = facebookClient.fetchUserInfo(tokenData.accessToken());
-            }
-            default -> throw new IllegalArgumentException("Provider não suportado: " + provider);
-        }
-
-        User user = userService.findOrCreateOAuthUser(
-            userInfo, provider, tokenData.accessToken(), tokenData.expiresAt());
-
-        log.info("OAuth login. provider={}, userId={}", provider, user.getId());
-        return buildAuthResponse(user);
+        OAuthProviderClient client = oauthProviders.find(request.provider())
+            .orElseThrow(() -> new IllegalArgumentException("Provider desconhecido: " + request.provider()));
+        return oauthCallbacks.execute(client.id(), request.code(),
+                () -> exchangeAndLogin(client, request.code()),
+                first -> reissue(first.user()))
+            .response();
     }
 
     // ── Refresh token ─────────────────────────────────────────
 
-    @Transactional
+    /**
+     * Rotação em um único UPDATE condicional: revoga o token apenas se ainda está
+     * ativo. Duas chamadas concorrentes com o mesmo token → só uma afeta a linha;
+     * a outra cai no caminho de token inválido/reutilizado.
+     *
+     * Reuso de um token já rotacionado revoga a família inteira — o 400 não
+     * desfaz essa revogação (noRollbackFor).
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
     public AuthResponse refresh(RefreshTokenRequest request) {
         String hash = jwtService.hashRefreshToken(request.refreshToken());
 
-        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash)
+        if (refreshTokenRepository.revokeIfActive(hash, LocalDateTime.now()) == 0) {
+            throw rejectRefresh(hash);
+        }
+
+        RefreshToken rotated = refreshTokenRepository.findWithUserByTokenHash(hash)
             .orElseThrow(() -> new IllegalArgumentException("Refresh token inválido"));
 
-        if (!stored.isValid()) {
-            throw new IllegalArgumentException("Refresh token expirado ou revogado");
+        if (rotated.getFamilyId() == null) {
+            // Token anterior à V8: abre a família agora e a grava também no token
+            // rotacionado, para que o reuso dele seja detectado
+            rotated.setFamilyId(newFamily());
         }
 
-        // Rotação: revoga o antigo e emite novo par
-        stored.revoke();
-        refreshTokenRepository.save(stored);
-
-        log.info("Token renovado. userId={}", stored.getUser().getId());
-        return buildAuthResponse(stored.getUser());
+        log.info("Token renovado. userId={}", rotated.getUser().getId());
+        return buildAuthResponse(rotated.getUser(), rotated.getFamilyId());
     }
 
     // ── Logout ────────────────────────────────────────────────
 
+    /** Logout de uma sessão: revoga só a família do dispositivo. */
+    @Transactional
+    public void logout(Long userId, String familyId) {
+        refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+        tokenCache.revokeFamily(familyId);
+        log.info("Logout. userId={} familyId={}", userId, familyId);
+    }
+
+    /** Logout de todas as sessões do usuário (tokens sem família, ou principal carregado do banco). */
     @Transactional
     public void logout(User user) {
         refreshTokenRepository.revokeAllByUser(user, LocalDateTime.now());
+        tokenCache.invalidateUser(user.getId());
         log.info("Logout. userId={}", user.getId());
     }
 
     // ── Limpeza periódica ─────────────────────────────────────
 
     @Scheduled(fixedRate = 3_600_000)  // a cada 1 hora
-    @Transactional
     public void cleanExpiredTokens() {
-        refreshTokenRepository.deleteAllExpiredBefore(LocalDateTime.now());
-        log.debug("Refresh tokens expirados removidos");
+        // Dispara em todas as réplicas; o lease garante um único executor por intervalo
+        refreshTokenPurgeJob.run();
     }
 
     // ── internos ──────────────────────────────────────────────
 
-    private AuthResponse buildAuthResponse(User user) {
-        String accessToken  = jwtService.generateAccessToken(user);
+    /** Resultado de um callback: o usuário fica disponível para as duplicatas concorrentes. */
+    private record OAuthLogin(User user, AuthResponse response) {}
+
+    /** Um callback completo: fase remota no provedor + persistência. */
+    private OAuthLogin exchangeAndLogin(OAuthProviderClient client, String code) {
+        AuthProvider provider = client.provider();
+
+        // Fase remota — nenhuma conexão JDBC retida
+        Timer.Sample remotePhase = Timer.start(meterRegistry);
+        String remoteOutcome = "error";
+        OAuthTokenData tokenData;
+        OAuthUserInfo  userInfo;
+        try {
+            tokenData = client.exchangeCode(code);
+            userInfo  = Optional.ofNullable(tokenData.idToken())
+                .flatMap(client::verifyIdToken)
+                .orElseGet(() -> client.fetchUserInfo(tokenData));
+            remoteOutcome = "success";
+        } finally {
+            // Falhas também são medidas: provedor lento e falhando é o caso que importa
+            remotePhase.stop(phaseTimer("remote", provider, remoteOutcome));
+        }
+
+        // Fase de persistência — transação curta
+        Timer.Sample persistPhase = Timer.start(meterRegistry);
+        String persistOutcome = "error";
+        try {
+            OAuthLogin login;
+            try {
+                login = persistOAuthLogin(provider, tokenData, userInfo);
+            } catch (DataIntegrityViolationException e) {
+                // Primeiro login concorrente com o mesmo email: a outra transação criou
+                // o usuário; repetindo, ele é encontrado pelo email/vínculo
+                log.debug("Conflito no login OAuth, repetindo. provider={}", provider);
+                login = persistOAuthLogin(provider, tokenData, userInfo);
+            }
+            persistOutcome = "success";
+            return login;
+        } finally {
+            persistPhase.stop(phaseTimer("persist", provider, persistOutcome));
+        }
+    }
+
+    private OAuthLogin persistOAuthLogin(AuthProvider provider, OAuthTokenData tokenData,
+                                         OAuthUserInfo userInfo) {
+        return transactionTemplate.execute(status -> {
+            User user = userService.findOrCreateOAuthUser(
+                userInfo, provider, tokenData.accessToken(), tokenData.expiresAt());
+
+            log.info("OAuth login. provider={}, userId={}", provider, user.getId());
+            return new OAuthLogin(user, buildAuthResponse(user, newFamily()));
+        });
+    }
+
+    /** Callback duplicado: mesma identidade, sessão própria — nunca o refresh token da original. */
+    private OAuthLogin reissue(User user) {
+        AuthResponse response = transactionTemplate.execute(status -> buildAuthResponse(user, newFamily()));
+        log.info("OAuth login (callback duplicado). userId={}", user.getId());
+        return new OAuthLogin(user, response);
+    }
+
+    /** Nada foi revogado: token desconhecido, expirado ou já usado (reuso). */
+    private IllegalArgumentException rejectRefresh(String hash) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash).orElse(null);
+        if (stored == null) {
+            return new IllegalArgumentException("Refresh token inválido");
+        }
+        if (stored.getRevokedAt() != null) {
+            // Token já rotacionado apresentado de novo: a família pode estar comprometida.
+            // Sem família (anterior à V8, nunca rotacionado): não há sucessor a revogar
+            int revoked = 0;
+            if (stored.getFamilyId() != null) {
+                revoked = refreshTokenRepository.revokeFamily(stored.getFamilyId(), LocalDateTime.now());
+                tokenCache.revokeFamily(stored.getFamilyId());
+            }
+            meterRegistry.counter("auth.refresh-tokens.reuse").increment();
+            log.warn("Reuso de refresh token revogado detectado. userId={} familyId={} revogados={}",
+                stored.getUser().getId(), stored.getFamilyId(), revoked);
+        }
+        return new IllegalArgumentException("Refresh token expirado ou revogado");
+    }
+
+    private static String newFamily() {
+        return UUID.randomUUID().toString();
+    }
+
+    private AuthResponse buildAuthResponse(User user, String familyId) {
+        String accessToken  = jwtService.generateAccessToken(user, familyId);
         String rawRefresh   = jwtService.generateRefreshToken();
         String refreshHash  = jwtService.hashRefreshToken(rawRefresh);
 
         RefreshToken rt = RefreshToken.builder()
             .user(user)
+            .familyId(familyId)
             .tokenHash(refreshHash)
             .expiresAt(LocalDateTime.now()
                 .plusSeconds(jwtService.getRefreshExpirationMs() / 1000))
@@ -147,11 +262,8 @@ public class AuthService {
         );
     }
 
-    private AuthProvider parseProvider(String s) {
-        try {
-            return AuthProvider.valueOf(s.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Provider desconhecido: " + s);
-        }
+    private Timer phaseTimer(String phase, AuthProvider provider, String outcome) {
+        return meterRegistry.timer("auth.oauth.callback.phase",
+            "phase", phase, "provider", provider.name(), "outcome", outcome);
     }
 }
@@ -0,0 +1,99 @@
+package com.example.api.application.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Colapsa callbacks OAuth concorrentes com o mesmo code (dupla navegação, retry
+ * do frontend) em uma única troca no provedor + findOrCreateOAuthUser.
+ *
+ * Só o que está em andamento é compartilhado: chamadas com a mesma chave
+ * aguardam o resultado da primeira (sucesso ou erro) em vez de chamar o
+ * provedor de novo — a segunda troca falharia de qualquer forma, o code é de
+ * uso único. Cada duplicata recebe o resultado passado por forDuplicate, que
+ * emite credenciais próprias: um refresh token nunca é entregue a dois clientes.
+ * Nada fica em memória depois da conclusão — um POST repetido mais tarde vai
+ * ao provedor, que recusa o code já usado.
+ *
+ * Chave = provider + SHA-256 do code. O code em claro ainda fica no callback
+ * enquanto a chamada original está em andamento.
+ * Por instância — réplicas diferentes não compartilham o resultado.
+ *
+ * Métrica: auth.oauth.callback.deduplicated.
+ */
+@Component
+@Slf4j
+public class OAuthCallbackDeduplicator {
+
+    private final ConcurrentMap<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public OAuthCallbackDeduplicator(MeterRegistry meterRegistry) {
+        this.coalesced = meterRegistry.counter("auth.oauth.callback.deduplicated");
+    }
+
+    /**
+     * Executa callback uma vez por provider+code entre chamadas concorrentes;
+     * as duplicatas recebem forDuplicate aplicado ao resultado da original.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String provider, String code, Supplier<T> callback, UnaryOperator<T> forDuplicate) {
+        String key = key(provider, code);
+
+        CompletableFuture<T> mine = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            log.debug("Callback OAuth duplicado aguardando o original. provider={}", provider);
+            return forDuplicate.apply(await(existing));
+        }
+
+        try {
+            T result = callback.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    /** Espera o resultado da chamada original; o tempo é limitado pelos timeouts do provedor. */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    private static String key(String provider, String code) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(code.getBytes(StandardCharsets.UTF_8));
+            return provider.toLowerCase(Locale.ROOT) + ':' + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+}
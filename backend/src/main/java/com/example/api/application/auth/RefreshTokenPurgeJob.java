@@ -0,0 +1,99 @@
+package com.example.api.application.auth;
+
+import com.example.api.domain.repository.RefreshTokenRepository;
+import com.example.api.infrastructure.lock.LeaseService;
+import com.example.api.infrastructure.persistence.RefreshTokenPartitionManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide qual nó executa a limpeza de refresh tokens em cada intervalo.
+ *
+ * - O dono do lease refresh-token-purge mantém as partições diárias
+ *   (cria as futuras, derruba as expiradas) quando o particionamento está ativo;
+ *   nesse caso não há DELETE de tokens.
+ * - Sem partições, backlog normal: só o dono do lease limpa os tokens.
+ * - Backlog grande (≥ shard-threshold expirados) e shards > 1: a faixa de ids é
+ *   dividida em N shards, cada um com seu lease; os nós disputam os shards e
+ *   limpam em paralelo, cada um a sua faixa.
+ *
+ * Só o dono do lease mede o backlog (varredura limitada no índice). A decisão
+ * fica publicada no lease refresh-token-purge:sharded pelo mesmo ttl; os outros
+ * nós apenas a leem — uma leitura por chave — para entrar nos shards.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenPurgeJob {
+
+    static final String LEASE = "refresh-token-purge";
+    static final String SHARDED = LEASE + ":sharded";
+
+    private final LeaseService leaseService;
+    private final RefreshTokenPurger purger;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenPartitionManager partitionManager;
+
+    @Value("${app.maintenance.token-partitions.enabled:true}")     private boolean partitionsEnabled;
+
+    @Value("${app.maintenance.token-purge.lease-ttl-minutes:55}")   private long leaseTtlMinutes;
+    @Value("${app.maintenance.token-purge.shards:1}")               private int shards;
+    @Value("${app.maintenance.token-purge.shard-threshold:100000}") private int shardThreshold;
+
+    public void run() {
+        Duration ttl = Duration.ofMinutes(leaseTtlMinutes);
+
+        if (leaseService.tryAcquire(LEASE, ttl)) {
+            if (partitionsEnabled) {
+                partitionManager.maintain();
+            } else if (shards > 1 && backlogIsLarge()) {
+                leaseService.publish(SHARDED, ttl);
+                runSharded(ttl);
+            } else {
+                purger.purge();
+            }
+            return;
+        }
+
+        log.debug("Manutenção de refresh tokens já executada por outro nó neste intervalo");
+        if (!partitionsEnabled && shards > 1 && leaseService.isActive(SHARDED)) {
+            runSharded(ttl);
+        }
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    /** Existe ao menos shardThreshold tokens expirados? (varredura limitada no índice) */
+    private boolean backlogIsLarge() {
+        return !refreshTokenRepository.findExpiredIds(
+            LocalDateTime.now(), 0L, Long.MAX_VALUE, PageRequest.of(shardThreshold, 1)).isEmpty();
+    }
+
+    private void runSharded(Duration ttl) {
+        Long minId = refreshTokenRepository.findMinId();
+        Long maxId = refreshTokenRepository.findMaxId();
+        if (minId == null || maxId == null) return;
+
+        long span = (maxId - minId) / shards + 1;
+        // Começa num shard aleatório para os nós não disputarem sempre o mesmo
+        int first = ThreadLocalRandom.current().nextInt(shards);
+
+        for (int i = 0; i < shards; i++) {
+            int shard = (first + i) % shards;
+            if (!leaseService.tryAcquire(LEASE + ":shard-" + shard, ttl)) continue;
+
+            long from = minId + shard * span;
+            long to   = shard == shards - 1 ? maxId : from + span - 1;
+            log.info("Limpeza shardada: shard {}/{} ids [{}..{}] node={}",
+                shard, shards, from, to, leaseService.getNodeId());
+            purger.purge(from, to);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.api.application.auth;
+
+import com.example.api.domain.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Remove refresh tokens expirados em lotes pequenos — usado quando a tabela não
+ * está particionada (com partições os expirados saem por DROP PARTITION).
+ *
+ * Tokens revogados ficam até o próprio expires_at: a detecção de reuso
+ * (AuthService.rejectRefresh) depende da linha revogada para reconhecer um
+ * token já rotacionado e revogar a família. Como cada rotação emite um token
+ * com validade nova, a família não expira sozinha — apagar revogados antes
+ * faria o replay de um token roubado cair no 400 genérico com a sessão viva.
+ *
+ * - cada lote é uma transação própria (SELECT de ids pelo índice + DELETE pela PK),
+ *   o que limita locks do InnoDB e undo log por transação;
+ * - pausa entre lotes para não disputar com os refresh concorrentes;
+ * - orçamento de tempo por execução — o que sobrar fica para a próxima.
+ *
+ * Métricas: auth.refresh-tokens.purged{reason}, auth.refresh-tokens.purge.lock-time.
+ *
+ * Coordenação entre réplicas (quem roda, e em qual faixa de ids): RefreshTokenPurgeJob.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenPurger {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.maintenance.token-purge.batch-size:1000}")         private int batchSize;
+    @Value("${app.maintenance.token-purge.pause-ms:50}")             private long pauseMs;
+    @Value("${app.maintenance.token-purge.max-duration-seconds:60}") private long maxDurationSeconds;
+
+    public record PurgeResult(long expiredRows, Duration lockTime, Duration elapsed, boolean budgetExhausted) {}
+
+    public PurgeResult purge() {
+        return purge(0L, Long.MAX_VALUE);
+    }
+
+    /** Limpa apenas tokens com id em [minId, maxId] — usado no modo shardado. */
+    public PurgeResult purge(long minId, long maxId) {
+        LocalDateTime now = LocalDateTime.now();
+        long started  = System.nanoTime();
+        long deadline = started + Duration.ofSeconds(maxDurationSeconds).toNanos();
+        Timer lockTimer = meterRegistry.timer("auth.refresh-tokens.purge.lock-time");
+
+        ChunkRun expired = purgeInChunks("expired", deadline, lockTimer,
+            page -> refreshTokenRepository.findExpiredIds(now, minId, maxId, page));
+
+        PurgeResult result = new PurgeResult(
+            expired.rows,
+            Duration.ofNanos(expired.lockNanos),
+            Duration.ofNanos(System.nanoTime() - started),
+            System.nanoTime() >= deadline);
+
+        log.info("Limpeza de refresh tokens [{}..{}]: expirados={}, lockTime={}ms, duração={}ms, orçamentoEsgotado={}",
+            minId, maxId, result.expiredRows(), result.lockTime().toMillis(),
+            result.elapsed().toMillis(), result.budgetExhausted());
+        return result;
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private static final class ChunkRun {
+        long rows;
+        long lockNanos;
+    }
+
+    private ChunkRun purgeInChunks(String reason, long deadline, Timer lockTimer,
+                                   Function<PageRequest, List<Long>> findIds) {
+        ChunkRun run = new ChunkRun();
+        PageRequest page = PageRequest.of(0, batchSize);
+
+        while (System.nanoTime() < deadline) {
+            long t0 = System.nanoTime();
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = findIds.apply(page);
+                return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIds(ids);
+            });
+            long held = System.nanoTime() - t0;
+
+            run.lockNanos += held;
+            lockTimer.record(Duration.ofNanos(held));
+            if (deleted == null || deleted == 0) break;
+
+            run.rows += deleted;
+            meterRegistry.counter("auth.refresh-tokens.purged", "reason", reason).increment(deleted);
+            if (deleted < batchSize) break;
+            if (!pause()) break;
+        }
+        return run;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) return true;
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
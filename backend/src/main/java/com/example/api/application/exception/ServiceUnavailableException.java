@@ -0,0 +1,21 @@
+package com.example.api.application.exception;
+
+import java.time.Duration;
+
+/**
+ * Recurso saturado ou temporariamente indisponível.
+ * Mapeada para 503 + Retry-After pelo GlobalExceptionHandler.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.api.application.user;
+
+import com.example.api.web.dto.response.UserResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache read-through do {@link UserResponse} servido em GET /users/me, por userId.
+ * Evita o LEFT JOIN FETCH de User + providers a cada poll do frontend.
+ *
+ * A invalidação acontece depois do commit da transação que alterou o usuário,
+ * para que uma leitura concorrente não recoloque no cache o estado antigo.
+ * Em várias réplicas, as demais só enxergam a mudança após o TTL.
+ *
+ * Métricas em /actuator/metrics/cache.* com cache=users.response.
+ */
+@Component
+public class UserResponseCache {
+
+    private final Cache<Long, UserResponse> cache;
+
+    public UserResponseCache(
+        MeterRegistry meterRegistry,
+        @Value("${app.users.cache.max-size:10000}") long maxSize,
+        @Value("${app.users.cache.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.response");
+    }
+
+    /** Devolve a projeção em cache ou carrega com loader; null (usuário inexistente) não é cacheado. */
+    public UserResponse get(Long userId, Function<Long, UserResponse> loader) {
+        return cache.get(userId, loader);
+    }
+
+    /** Invalida após o commit da transação corrente (ou na hora, se não houver transação). */
+    public void evictAfterCommit(Long userId) {
+        if (userId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(userId);
+            }
+        });
+    }
+}
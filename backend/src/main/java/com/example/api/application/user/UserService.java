@@ -7,12 +7,15 @@ import com.example.api.infrastructure.oauth.OAuthUserInfo;
 import com.example.api.web.dto.response.UserResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -22,14 +25,23 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserProviderRepository userProviderRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final UserResponseCache responseCache;
 
     /**
      * Busca ou cria usuário a partir de dados OAuth2.
      * Estratégia:
-     * 1. Existe UserProvider com (provider, providerId)? → atualiza e retorna
+     * 1. Existe UserProvider com (provider, providerId)? → atualiza o token e retorna
      * 2. Existe User com mesmo email? → vincula provider e retorna
      * 3. Cria novo User + UserProvider
+     *
+     * Caminho comum (passo 1): um SELECT com JOIN FETCH + um UPDATE do token;
+     * o User só é escrito se nome/foto mudaram (dirty checking).
+     * Primeiro login concorrente do mesmo usuário externo: o vínculo é um
+     * INSERT ... ON DUPLICATE KEY UPDATE em uq_provider_provider_id, seguido da
+     * releitura do vínculo com lock — quem perde encontra o usuário vencedor e
+     * descarta o que acabou de criar.
+     * Email duplicado no passo 3 sobe como DataIntegrityViolationException
+     * (o chamador repete a transação, que então cai no passo 1 ou 2).
      */
     @Transactional
     public User findOrCreateOAuthUser(OAuthUserInfo info, AuthProvider provider,
@@ -37,52 +49,71 @@ public class UserService {
 
         // Passo 1: provider já vinculado
         Optional<UserProvider> existingProvider =
-            userProviderRepository.findByProviderAndProviderId(provider, info.providerId());
+            userProviderRepository.findWithUser(provider, info.providerId());
 
         if (existingProvider.isPresent()) {
-            UserProvider up = existingProvider.get();
-            User user = up.getUser();
-            updateUserData(user, info);
-            up.setAccessToken(accessToken);
-            up.setTokenExpiresAt(tokenExpiresAt);
-            userProviderRepository.save(up);
-            return userRepository.save(user);
+            return refreshLink(existingProvider.get(), info, accessToken, tokenExpiresAt);
         }
 
         // Passo 2: mesmo email
+        User user = null;
         if (info.email() != null && !info.email().isBlank()) {
-            Optional<User> existing = userRepository.findByEmail(info.email());
-            if (existing.isPresent()) {
-                User user = existing.get();
-                linkProvider(user, provider, info.providerId(), accessToken, tokenExpiresAt);
+            user = userRepository.findByEmail(info.email()).orElse(null);
+        }
+
+        // Passo 3: novo usuário
+        boolean created = user == null;
+        if (created) {
+            user = userRepository.save(User.builder()
+                .email(info.email())
+                .name(info.name() != null ? info.name() : "Usuário")
+                .photoUrl(info.photoUrl())
+                .build());
+        }
+
+        userProviderRepository.linkIfAbsent(user.getId(), provider.name(),
+            info.providerId(), accessToken, tokenExpiresAt, LocalDateTime.now());
+        UserProvider link = userProviderRepository.findWithUserForUpdate(provider, info.providerId())
+            .orElseThrow(() -> new IllegalStateException("Vínculo OAuth não encontrado após o INSERT"));
+
+        if (link.getUser().getId().equals(user.getId())) {
+            responseCache.evictAfterCommit(user.getId());   // lista de providers mudou
+            if (created) {
+                log.info("Novo usuário criado via OAuth. provider={}, userId={}", provider, user.getId());
+            } else {
                 updateUserData(user, info);
-                return userRepository.save(user);
             }
+            return user;
         }
 
-        // Passo 3: novo usuário
-        User newUser = User.builder()
-            .email(info.email())
-            .name(info.name() != null ? info.name() : "Usuário")
-            .photoUrl(info.photoUrl())
-            .build();
-        User saved = userRepository.save(newUser);
-        linkProvider(saved, provider, info.providerId(), accessToken, tokenExpiresAt);
-        log.info("Novo usuário criado via OAuth. provider={}, userId={}", provider, saved.getId());
-        return saved;
+        // Corrida: outro login do mesmo usuário externo vinculou primeiro
+        if (created) {
+            userRepository.delete(user);
+            log.info("Login OAuth concorrente: usuário órfão removido. provider={}, userId={}",
+                provider, user.getId());
+        }
+        return refreshLink(link, info, accessToken, tokenExpiresAt);
     }
 
+    /**
+     * encodedPassword já deve vir com hash — o BCrypt roda fora da transação.
+     * Um único INSERT: email repetido (case-insensitive) viola uq_users_email_normalized.
+     */
     @Transactional
-    public User registerLocal(String email, String password, String name) {
-        if (userRepository.existsByEmail(email)) {
-            throw new IllegalArgumentException("Email já cadastrado");
-        }
+    public User registerLocal(String email, String encodedPassword, String name) {
         User user = User.builder()
             .email(email)
-            .password(passwordEncoder.encode(password))
+            .password(encodedPassword)
             .name(name)
             .build();
-        User saved = userRepository.save(user);
+        User saved;
+        try {
+            saved = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            // Só o UNIQUE do email vira 400; outras violações seguem como erro interno
+            if (!violates(e, "uq_users_email_normalized")) throw e;
+            throw new IllegalArgumentException("Email já cadastrado");
+        }
         linkProvider(saved, AuthProvider.LOCAL, null, null, null);
         log.info("Usuário local registrado. userId={}", saved.getId());
         return saved;
@@ -98,6 +129,17 @@ public class UserService {
         return userRepository.findByIdWithProviders(id);
     }
 
+    /** Projeção de GET /users/me, via cache (invalidado quando o usuário muda). */
+    public Optional<UserResponse> findResponseById(Long id) {
+        return Optional.ofNullable(responseCache.get(id, k ->
+            toResponse(userRepository.findResponseRowsById(k))));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserResponse> findResponseByEmail(String email) {
+        return Optional.ofNullable(toResponse(userRepository.findResponseRowsByEmail(email)));
+    }
+
     public UserResponse toResponse(User user) {
         List<String> providerNames = user.getProviders().stream()
             .map(p -> p.getProvider().name())
@@ -111,10 +153,24 @@ public class UserService {
         );
     }
 
+    /** Agrupa as linhas da projeção (uma por provider) num único UserResponse; null se vazio. */
+    static UserResponse toResponse(List<UserResponseRow> rows) {
+        if (rows.isEmpty()) return null;
+
+        UserResponseRow first = rows.get(0);
+        List<String> providerNames = rows.stream()
+            .map(UserResponseRow::provider)
+            .filter(Objects::nonNull)
+            .map(Enum::name)
+            .toList();
+        return new UserResponse(first.id(), first.name(), first.email(), first.photoUrl(), providerNames);
+    }
+
     // ── privados ──────────────────────────────────────────────
 
     private void linkProvider(User user, AuthProvider provider, String providerId,
                                String accessToken, LocalDateTime tokenExpiresAt) {
+        responseCache.evictAfterCommit(user.getId());   // lista de providers mudou
         UserProvider up = UserProvider.builder()
             .user(user)
             .provider(provider)
@@ -125,12 +181,38 @@ public class UserService {
         userProviderRepository.save(up);
     }
 
+    private User refreshLink(UserProvider up, OAuthUserInfo info,
+                             String accessToken, LocalDateTime tokenExpiresAt) {
+        userProviderRepository.updateToken(up.getId(), accessToken, tokenExpiresAt, LocalDateTime.now());
+        User user = up.getUser();
+        updateUserData(user, info);
+        return user;
+    }
+
+    /** Só altera (e só gera UPDATE no flush) se nome/foto mudaram no provedor. */
     private void updateUserData(User user, OAuthUserInfo info) {
+        boolean changed = false;
         if (info.name() != null && !info.name().equals(user.getName())) {
             user.setName(info.name());
+            changed = true;
         }
         if (info.photoUrl() != null && !info.photoUrl().equals(user.getPhotoUrl())) {
             user.setPhotoUrl(info.photoUrl());
+            changed = true;
+        }
+        if (changed) responseCache.evictAfterCommit(user.getId());
+    }
+
+    /**
+     * A violação foi da constraint informada? O nome vem do Hibernate
+     * com prefixo/sufixo do banco (MySQL: "users.uq_..."; H2: "uq_..._INDEX_n"), por isso contains.
+     */
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return cve.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint);
+            }
         }
+        return false;
     }
 }
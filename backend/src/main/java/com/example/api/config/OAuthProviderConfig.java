@@ -0,0 +1,60 @@
+package com.example.api.config;
+
+import com.example.api.infrastructure.http.PooledHttpClientFactory;
+import com.example.api.infrastructure.oauth.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Monta um {@link OAuthProviderClient} para cada entrada de app.oauth2.<id>.*,
+ * cada um com RestTemplate/pool, bulkhead e circuit breaker próprios.
+ *
+ * Novo provedor: constante em AuthProvider (coluna user_providers.provider) +
+ * bloco em app.oauth2 com o type de uma implementação existente. Só um
+ * protocolo novo exige uma nova subclasse de AbstractOAuthProviderClient.
+ */
+@Configuration
+@Slf4j
+public class OAuthProviderConfig {
+
+    @Bean
+    public OAuthProviderRegistry oauthProviderRegistry(Environment environment,
+                                                       PooledHttpClientFactory httpClients,
+                                                       MeterRegistry meterRegistry) {
+        Map<String, OAuthProviderProperties> configs = Binder.get(environment)
+            .bind("app.oauth2", Bindable.mapOf(String.class, OAuthProviderProperties.class))
+            .orElse(Map.of());
+
+        List<OAuthProviderClient> clients = configs.entrySet().stream()
+            .map(e -> create(e.getKey().toLowerCase(Locale.ROOT), e.getValue(), httpClients, meterRegistry))
+            .toList();
+
+        log.info("Provedores OAuth configurados: {}", clients.stream().map(OAuthProviderClient::id).toList());
+        return new OAuthProviderRegistry(clients);
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private static OAuthProviderClient create(String id, OAuthProviderProperties props,
+                                              PooledHttpClientFactory httpClients, MeterRegistry meterRegistry) {
+        String type = props.type() != null ? props.type() : id;
+        RestTemplate restTemplate = httpClients.create("oauth-" + id,
+            props.connectTimeoutMs(), props.readTimeoutMs(), props.maxConnections());
+
+        return switch (type) {
+            case "oidc"     -> new OidcOAuthClient(id, props, restTemplate, meterRegistry);
+            case "facebook" -> new FacebookOAuthClient(id, props, restTemplate, meterRegistry);
+            default -> throw new IllegalStateException("app.oauth2." + id + ".type desconhecido: " + type);
+        };
+    }
+}
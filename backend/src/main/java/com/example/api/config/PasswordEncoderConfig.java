@@ -0,0 +1,96 @@
+package com.example.api.config;
+
+import com.example.api.infrastructure.security.BoundedPasswordEncoder;
+import com.example.api.infrastructure.security.PasswordCostCalibrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Encoder de senha com algoritmo e custo gravados no próprio hash ({bcrypt}…, {argon2}…).
+ *
+ * - Hashes antigos, sem prefixo, continuam sendo aceitos como BCrypt.
+ * - No login bem-sucedido, o DaoAuthenticationProvider re-encoda a senha se o
+ *   hash salvo usa outro algoritmo ou custo menor que o configurado
+ *   (ver CustomUserDetailsService.updatePassword). Não há migração em massa da coluna.
+ * - Com calibrate=true o custo é medido no host até atingir target-ms.
+ */
+@Configuration
+@Slf4j
+public class PasswordEncoderConfig {
+
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+
+    // Parâmetros Argon2id recomendados pela OWASP (exceto memória/iterações, configuráveis)
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+
+    @Value("${app.security.password.algorithm:bcrypt}")      private String algorithm;
+    @Value("${app.security.password.bcrypt-strength:12}")    private int bcryptStrength;
+    @Value("${app.security.password.argon2-memory-kb:19456}") private int argon2MemoryKb;
+    @Value("${app.security.password.argon2-iterations:2}")   private int argon2Iterations;
+    @Value("${app.security.password.calibrate:false}")       private boolean calibrate;
+    @Value("${app.security.password.target-ms:250}")         private long targetMs;
+
+    // Pool dedicado ao hash (0 = número de núcleos disponíveis)
+    @Value("${app.security.password-hashing.threads:0}")             private int hashingThreads;
+    @Value("${app.security.password-hashing.queue-capacity:64}")     private int hashingQueueCapacity;
+    @Value("${app.security.password-hashing.retry-after-seconds:2}") private long hashingRetryAfterSeconds;
+
+    /** Hash roda no pool dedicado do BoundedPasswordEncoder, nunca nas threads do Tomcat. */
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+            delegatingEncoder(),
+            threads,
+            hashingQueueCapacity,
+            Duration.ofSeconds(hashingRetryAfterSeconds),
+            meterRegistry
+        );
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private PasswordEncoder delegatingEncoder() {
+        String idForEncode = algorithm.toLowerCase(Locale.ROOT);
+        if (!BCRYPT.equals(idForEncode) && !ARGON2.equals(idForEncode)) {
+            throw new IllegalStateException("app.security.password.algorithm inválido: " + algorithm);
+        }
+
+        Duration target = Duration.ofMillis(targetMs);
+        int strength = calibrate && BCRYPT.equals(idForEncode)
+            ? PasswordCostCalibrator.bcryptStrength(target) : bcryptStrength;
+        int iterations = calibrate && ARGON2.equals(idForEncode)
+            ? PasswordCostCalibrator.argon2Iterations(target, ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                ARGON2_PARALLELISM, argon2MemoryKb)
+            : argon2Iterations;
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+            BCRYPT, bcrypt,
+            ARGON2, new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH,
+                ARGON2_PARALLELISM, argon2MemoryKb, iterations)
+        );
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes gravados antes do prefixo {id} são BCrypt puros
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        log.info("Hash de senha: algoritmo={}, bcryptStrength={}, argon2Iterations={}, argon2MemoryKb={}",
+            idForEncode, strength, iterations, argon2MemoryKb);
+        return delegating;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.api.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease de um job de manutenção. Aquisição e renovação são feitas por UPDATE/INSERT
+ * condicionais em MaintenanceLeaseRepository — nunca por load + save.
+ */
+@Entity
+@Table(name = "maintenance_leases")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class MaintenanceLease {
+
+    @Id
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 255)
+    private String owner;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+}
@@ -7,10 +7,17 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
+/**
+ * Tabela particionada por dia de expiração (V6): a PK física é (id, expires_at)
+ * e token_hash é indexado mas não UNIQUE — ver RefreshTokenPartitionManager.
+ */
 @Entity
 @Table(name = "refresh_tokens", indexes = {
     @Index(name = "idx_rt_user_id", columnList = "user_id"),
-    @Index(name = "idx_rt_hash", columnList = "token_hash")
+    @Index(name = "idx_rt_hash", columnList = "token_hash"),
+    @Index(name = "idx_rt_family", columnList = "family_id"),
+    @Index(name = "idx_rt_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_rt_revoked_at", columnList = "revoked_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
@@ -24,7 +31,11 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    /** Sessão (login + rotações) à qual o token pertence — ver V8. NULL: token anterior à V8. */
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
     private String tokenHash;
 
     @Column(name = "expires_at", nullable = false)
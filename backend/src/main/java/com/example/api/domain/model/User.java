@@ -9,11 +9,14 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
 @Table(name = "users", indexes = {
     @Index(name = "idx_users_email", columnList = "email")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uq_users_email_normalized", columnNames = "email_normalized")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
@@ -26,6 +29,11 @@ public class User {
     @Column(nullable = true, length = 255)
     private String email;
 
+    // Derivado de email (ver normalizeEmail); chave única das buscas por email
+    @Column(name = "email_normalized", nullable = true, length = 255)
+    @Setter(AccessLevel.NONE)
+    private String emailNormalized;
+
     // NULL para usuários que só usam OAuth (nunca criaram senha)
     @Column(nullable = true, length = 255)
     private String password;
@@ -48,6 +56,18 @@ public class User {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /** trim + minúsculas (Locale.ROOT); null/vazio → null. */
+    public static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) return null;
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void syncEmailNormalized() {
+        this.emailNormalized = normalizeEmail(email);
+    }
+
     public void addProvider(UserProvider provider) {
         provider.setUser(this);
         this.providers.add(provider);
@@ -0,0 +1,43 @@
+package com.example.api.domain.repository;
+
+import com.example.api.domain.model.MaintenanceLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+
+public interface MaintenanceLeaseRepository extends JpaRepository<MaintenanceLease, String> {
+
+    /** Renova se o lease é nosso ou já venceu. Retorna 1 se o lease ficou com :owner. */
+    @Modifying
+    @Query("""
+        UPDATE MaintenanceLease l
+           SET l.owner = :owner, l.lockedUntil = :until, l.acquiredAt = :now
+         WHERE l.name = :name AND (l.owner = :owner OR l.lockedUntil < :now)
+        """)
+    int renewIfOwnedOrExpired(@Param("name") String name, @Param("owner") String owner,
+                              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /** Assume o lease seja qual for o dono atual. Retorna 0 se ele ainda não existe. */
+    @Modifying
+    @Query("""
+        UPDATE MaintenanceLease l
+           SET l.owner = :owner, l.lockedUntil = :until, l.acquiredAt = :now
+         WHERE l.name = :name
+        """)
+    int takeOver(@Param("name") String name, @Param("owner") String owner,
+                 @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    /** Lease ainda válido em :now, seja qual for o dono. */
+    boolean existsByNameAndLockedUntilAfter(String name, LocalDateTime now);
+
+    /** Cria o lease se ainda não existe. Retorna 0 se outro nó criou antes. */
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO maintenance_leases (name, owner, locked_until, acquired_at)
+        VALUES (:name, :owner, :until, :now)
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("owner") String owner,
+                       @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+}
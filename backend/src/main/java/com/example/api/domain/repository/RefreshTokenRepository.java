@@ -2,21 +2,57 @@ package com.example.api.domain.repository;
 
 import com.example.api.domain.model.RefreshToken;
 import com.example.api.domain.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByTokenHash(String tokenHash);
 
+    // ── Rotação atômica: só uma chamada concorrente consegue revogar o token ──
+
+    @Modifying
+    @Query("""
+        UPDATE RefreshToken r SET r.revokedAt = :now
+         WHERE r.tokenHash = :hash AND r.revokedAt IS NULL AND r.expiresAt > :now
+        """)
+    int revokeIfActive(@Param("hash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :hash")
+    Optional<RefreshToken> findWithUserByTokenHash(@Param("hash") String tokenHash);
+
+    /** Revoga todos os tokens ativos de uma família (idx_rt_family). */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
     @Modifying
     @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.user = :user AND r.revokedAt IS NULL")
     void revokeAllByUser(@Param("user") User user, @Param("now") LocalDateTime now);
 
+    // ── Limpeza em lotes: seleciona ids pelo índice e apaga pela PK ──
+    // Só por expires_at: revogados ficam até expirar (detecção de reuso)
+
+    @Query("""
+        SELECT r.id FROM RefreshToken r
+         WHERE r.expiresAt < :cutoff AND r.id BETWEEN :minId AND :maxId
+         ORDER BY r.expiresAt
+        """)
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff,
+                              @Param("minId") long minId, @Param("maxId") long maxId, Pageable page);
+
     @Modifying
-    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
-    void deleteAllExpiredBefore(@Param("now") LocalDateTime now);
+    @Query("DELETE FROM RefreshToken r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    @Query("SELECT MIN(r.id) FROM RefreshToken r")
+    Long findMinId();
+
+    @Query("SELECT MAX(r.id) FROM RefreshToken r")
+    Long findMaxId();
 }
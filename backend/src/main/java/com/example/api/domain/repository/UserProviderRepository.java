@@ -2,9 +2,60 @@ package com.example.api.domain.repository;
 
 import com.example.api.domain.enums.AuthProvider;
 import com.example.api.domain.model.UserProvider;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface UserProviderRepository extends JpaRepository<UserProvider, Long> {
-    Optional<UserProvider> findByProviderAndProviderId(AuthProvider provider, String providerId);
+
+    // ── Login OAuth: vínculo + usuário num único SELECT ──
+
+    @Query("""
+        SELECT up FROM UserProvider up JOIN FETCH up.user
+         WHERE up.provider = :provider AND up.providerId = :providerId
+        """)
+    Optional<UserProvider> findWithUser(@Param("provider") AuthProvider provider,
+                                        @Param("providerId") String providerId);
+
+    /** Leitura com lock (SELECT ... FOR UPDATE): enxerga o vínculo recém-commitado por outra transação. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT up FROM UserProvider up JOIN FETCH up.user
+         WHERE up.provider = :provider AND up.providerId = :providerId
+        """)
+    Optional<UserProvider> findWithUserForUpdate(@Param("provider") AuthProvider provider,
+                                                 @Param("providerId") String providerId);
+
+    /** Atualiza só o token do provedor — sem carregar/sujar a entidade. */
+    @Modifying
+    @Query("""
+        UPDATE UserProvider up
+           SET up.accessToken = :accessToken, up.tokenExpiresAt = :expiresAt, up.lastUsedAt = :now
+         WHERE up.id = :id
+        """)
+    int updateToken(@Param("id") Long id, @Param("accessToken") String accessToken,
+                    @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    /**
+     * Vincula se (provider, provider_id) ainda não existe; senão não altera nada.
+     * Só o UNIQUE uq_provider_provider_id é tolerado — outros erros (truncamento,
+     * valor inválido, FK) falham normalmente, o que INSERT IGNORE esconderia.
+     * Sem retorno: com useAffectedRows=false (padrão do Connector/J) o duplicado
+     * também conta 1 linha — quem venceu se descobre relendo o vínculo.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_providers
+            (user_id, provider, provider_id, access_token, token_expires_at, linked_at, last_used_at)
+        VALUES (:userId, :provider, :providerId, :accessToken, :expiresAt, :now, :now)
+        ON DUPLICATE KEY UPDATE id = id
+        """, nativeQuery = true)
+    void linkIfAbsent(@Param("userId") Long userId, @Param("provider") String provider,
+                      @Param("providerId") String providerId, @Param("accessToken") String accessToken,
+                      @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
 }
@@ -4,15 +4,39 @@ import com.example.api.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-    boolean existsByEmail(String email);
+    // Buscas por email sempre pela coluna normalizada (uq_users_email_normalized)
 
-    @Query("SELECT u FROM User u LEFT JOIN FETCH u.providers WHERE u.email = :email")
-    Optional<User> findByEmailWithProviders(@Param("email") String email);
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    default Optional<User> findByEmail(String email) {
+        return findByEmailNormalized(User.normalizeEmail(email));
+    }
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.providers WHERE u.emailNormalized = :email")
+    Optional<User> findByNormalizedEmailWithProviders(@Param("email") String emailNormalized);
+
+    default Optional<User> findByEmailWithProviders(String email) {
+        return findByNormalizedEmailWithProviders(User.normalizeEmail(email));
+    }
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.providers WHERE u.id = :id")
     Optional<User> findByIdWithProviders(@Param("id") Long id);
+
+    // ── Projeções de leitura (GET /users/me): só as colunas da resposta ──
+
+    @Query("SELECT new com.example.api.domain.repository.UserResponseRow(u.id, u.name, u.email, u.photoUrl, p.provider) "
+         + "FROM User u LEFT JOIN u.providers p WHERE u.id = :id ORDER BY p.provider")
+    List<UserResponseRow> findResponseRowsById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.api.domain.repository.UserResponseRow(u.id, u.name, u.email, u.photoUrl, p.provider) "
+         + "FROM User u LEFT JOIN u.providers p WHERE u.emailNormalized = :email ORDER BY p.provider")
+    List<UserResponseRow> findResponseRowsByNormalizedEmail(@Param("email") String emailNormalized);
+
+    default List<UserResponseRow> findResponseRowsByEmail(String email) {
+        return findResponseRowsByNormalizedEmail(User.normalizeEmail(email));
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.api.domain.repository;
+
+import com.example.api.domain.enums.AuthProvider;
+
+/**
+ * Linha da projeção usuário × provider (uma por provider vinculado; provider
+ * null quando não há nenhum). Montada direto do result set via JPQL
+ * {@code SELECT new ...}: não passa pelo persistence context nem carrega
+ * colunas que a resposta não usa (ex.: user_providers.access_token).
+ */
+public record UserResponseRow(
+    Long id,
+    String name,
+    String email,
+    String photoUrl,
+    AuthProvider provider
+) {}
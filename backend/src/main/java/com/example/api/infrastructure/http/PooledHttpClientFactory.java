@@ -0,0 +1,98 @@
+package com.example.api.infrastructure.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Cria RestTemplates com pool de conexões próprio — um por provedor OAuth, para
+ * que um provedor lento não esgote as conexões dos demais.
+ * Pool HTTP/1.1 com keep-alive: o handshake TLS é feito uma vez e reaproveitado.
+ *
+ * Timeouts e tamanho do pool vêm de app.http-client.* e podem ser sobrescritos
+ * por provedor (app.oauth2.<id>.connect-timeout-ms, read-timeout-ms, max-connections).
+ *
+ * Métricas: httpcomponents.httpclient.pool.* (tag httpclient=<nome>) e http.client.requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PooledHttpClientFactory {
+
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final MeterRegistry meterRegistry;
+    private final List<CloseableHttpClient> clients = new CopyOnWriteArrayList<>();
+
+    @Value("${app.http-client.connect-timeout-ms:2000}")      private long connectTimeoutMs;
+    @Value("${app.http-client.read-timeout-ms:5000}")         private long readTimeoutMs;
+    @Value("${app.http-client.pool-acquire-timeout-ms:1000}") private long poolAcquireTimeoutMs;
+    @Value("${app.http-client.max-per-route:20}")             private int maxPerRoute;
+    @Value("${app.http-client.idle-evict-seconds:30}")        private long idleEvictSeconds;
+
+    /** Parâmetros nulos usam os padrões de app.http-client.*. */
+    public RestTemplate create(String name, Long connectTimeoutMs, Long readTimeoutMs, Integer maxConnections) {
+        long connect = connectTimeoutMs != null ? connectTimeoutMs : this.connectTimeoutMs;
+        long read    = readTimeoutMs    != null ? readTimeoutMs    : this.readTimeoutMs;
+        int  max     = maxConnections   != null ? maxConnections   : maxPerRoute;
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(max)
+            .setMaxConnPerRoute(max)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connect))
+                .setSocketTimeout(Timeout.ofMilliseconds(read))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build())
+            .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(read))
+                .build())
+            .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+            .evictExpiredConnections()
+            .build();
+        clients.add(httpClient);
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name).bindTo(meterRegistry);
+        log.info("HTTP client '{}': connectTimeout={}ms readTimeout={}ms maxConnections={}", name, connect, read, max);
+
+        // Via builder para herdar os conversores e a instrumentação (http.client.requests)
+        return restTemplateBuilder
+            .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+            .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        for (CloseableHttpClient client : clients) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                log.warn("Falha ao fechar HTTP client: {}", e.getMessage());
+            }
+        }
+    }
+}
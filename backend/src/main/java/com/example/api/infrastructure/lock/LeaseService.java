@@ -0,0 +1,70 @@
+package com.example.api.infrastructure.lock;
+
+import com.example.api.domain.repository.MaintenanceLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Leases na tabela maintenance_leases para que só um nó do cluster execute
+ * cada job de manutenção por intervalo.
+ *
+ * O lease não é liberado ao fim do job: ele vale pelo intervalo inteiro (ttl),
+ * assim réplicas cujo @Scheduled dispara minutos depois não repetem o trabalho.
+ * Os relógios dos nós devem estar sincronizados (NTP) com folga bem menor que o ttl.
+ */
+@Service
+@Slf4j
+public class LeaseService {
+
+    private final MaintenanceLeaseRepository leaseRepository;
+    private final String nodeId;
+
+    public LeaseService(MaintenanceLeaseRepository leaseRepository,
+                        @Value("${app.maintenance.node-id:}") String nodeId) {
+        this.leaseRepository = leaseRepository;
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+    }
+
+    /** true se este nó detém o lease até now + ttl. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now   = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+
+        boolean acquired = leaseRepository.renewIfOwnedOrExpired(name, nodeId, now, until) == 1
+            || leaseRepository.insertIfAbsent(name, nodeId, now, until) == 1;
+
+        log.debug("Lease {}: {} (node={})", name, acquired ? "adquirido" : "ocupado", nodeId);
+        return acquired;
+    }
+
+    /**
+     * Marca name como válido até now + ttl, mesmo que outro nó o detenha —
+     * para registrar uma decisão que os demais nós só leem (ver {@link #isActive}).
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void publish(String name, Duration ttl) {
+        LocalDateTime now   = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+        if (leaseRepository.takeOver(name, nodeId, now, until) == 0) {
+            leaseRepository.insertIfAbsent(name, nodeId, now, until);
+        }
+    }
+
+    /** true se name foi adquirido/publicado por algum nó e ainda não venceu. */
+    @Transactional(readOnly = true)
+    public boolean isActive(String name) {
+        return leaseRepository.existsByNameAndLockedUntilAfter(name, LocalDateTime.now());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.api.infrastructure.oauth;
+
+import com.example.api.domain.enums.AuthProvider;
+import com.example.api.infrastructure.resilience.Bulkhead;
+import com.example.api.infrastructure.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.*;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Base dos provedores: troca de code padrão OAuth2 (form POST no token-uri) e
+ * chamadas HTTP isoladas por provedor:
+ * - bulkhead: no máximo N chamadas simultâneas; sem vaga → 503 imediato;
+ * - circuit breaker: falhas seguidas abrem o circuito → 503 imediato, sem
+ *   esperar o timeout. 4xx (code inválido, token expirado) não contam;
+ * - retry (só em {@link #callIdempotent}): timeouts/IO e 5xx, com backoff
+ *   exponencial e jitter total, limitado a retry.max-attempts.
+ * Cada instância tem seu RestTemplate/pool, bulkhead e breaker — um provedor
+ * lento não afeta os outros nem o login local.
+ *
+ * Métricas (tag provider): oauth.circuit-breaker.state (0 closed, 1 open,
+ * 2 half-open), oauth.circuit-breaker.rejected, oauth.bulkhead.in-use,
+ * oauth.bulkhead.rejected, oauth.retries.
+ */
+@Slf4j
+public abstract class AbstractOAuthProviderClient implements OAuthProviderClient {
+
+    protected final String id;
+    protected final AuthProvider provider;
+    protected final OAuthProviderProperties properties;
+    protected final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter retries;
+
+    protected AbstractOAuthProviderClient(String id, OAuthProviderProperties properties, RestTemplate restTemplate,
+                                          MeterRegistry meterRegistry) {
+        this.id           = id;
+        this.provider     = resolveProvider(id);
+        this.properties   = properties;
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = new CircuitBreaker("oauth-" + id,
+            properties.circuitBreaker().failureThreshold(),
+            Duration.ofSeconds(properties.circuitBreaker().openSeconds()),
+            e -> !(e instanceof HttpClientErrorException));
+        this.bulkhead = new Bulkhead("oauth-" + id,
+            properties.bulkhead().maxConcurrent(),
+            Duration.ofMillis(properties.bulkhead().maxWaitMs()));
+
+        Gauge.builder("oauth.circuit-breaker.state", circuitBreaker, cb -> cb.state().ordinal())
+            .tag("provider", id)
+            .description("0 = closed, 1 = open, 2 = half-open")
+            .register(meterRegistry);
+        FunctionCounter.builder("oauth.circuit-breaker.rejected", circuitBreaker, CircuitBreaker::rejectedCount)
+            .tag("provider", id)
+            .register(meterRegistry);
+        Gauge.builder("oauth.bulkhead.in-use", bulkhead, Bulkhead::inUse)
+            .tag("provider", id)
+            .register(meterRegistry);
+        FunctionCounter.builder("oauth.bulkhead.rejected", bulkhead, Bulkhead::rejectedCount)
+            .tag("provider", id)
+            .register(meterRegistry);
+        this.retries = meterRegistry.counter("oauth.retries", "provider", id);
+    }
+
+    @Override public String id()             { return id; }
+    @Override public AuthProvider provider() { return provider; }
+
+    @Override
+    public OAuthTokenData exchangeCode(String code) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
+        body.add("grant_type",    "authorization_code");
+        body.add("code",          code);
+        body.add("redirect_uri",  properties.redirectUri());
+        body.add("client_id",     properties.clientId());
+        body.add("client_secret", properties.clientSecret());
+
+        OAuthTokenResponse resp = call(() -> restTemplate.exchange(properties.tokenUri(), HttpMethod.POST,
+            new HttpEntity<>(body, headers), OAuthTokenResponse.class).getBody());
+
+        if (resp == null || resp.accessToken() == null) {
+            throw new RuntimeException(id + ": falha ao trocar code por token");
+        }
+        return resp.toTokenData();
+    }
+
+    /**
+     * Executa uma chamada ao provedor sob bulkhead e circuit breaker. O bulkhead
+     * fica por fora: rejeição por falta de vaga não conta como falha nem como
+     * sucesso no breaker.
+     */
+    protected <T> T call(Supplier<T> request) {
+        return bulkhead.call(() -> circuitBreaker.call(request));
+    }
+
+    /**
+     * Como {@link #call}, com novas tentativas para falhas transitórias. Só para
+     * chamadas idempotentes (GET de userinfo) — nunca para a troca do code, que
+     * é de uso único. 503 do próprio bulkhead/breaker não é repetido.
+     */
+    protected <T> T callIdempotent(Supplier<T> request) {
+        int maxAttempts = Math.max(1, properties.retry().maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call(request);
+            } catch (ResourceAccessException | HttpServerErrorException e) {
+                if (attempt >= maxAttempts) throw e;
+                retries.increment();
+                log.debug("{}: tentativa {} falhou ({}), repetindo", id, attempt, e.getMessage());
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    /** Backoff exponencial com jitter total: espera aleatória em [0, base·2^(n-1)]. */
+    private void backoff(int attempt, RuntimeException cause) {
+        long ceiling = properties.retry().backoffMs() << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private static AuthProvider resolveProvider(String id) {
+        try {
+            return AuthProvider.valueOf(id.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("app.oauth2." + id + ": sem AuthProvider correspondente", e);
+        }
+    }
+}
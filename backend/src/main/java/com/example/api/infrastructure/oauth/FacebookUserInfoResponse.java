@@ -0,0 +1,27 @@
+package com.example.api.infrastructure.oauth;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Resposta do Graph API /me do Facebook (só os campos usados).
+ * A foto vem aninhada em {picture: {data: {url, ...}}}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record FacebookUserInfoResponse(String id, String email, String name, Picture picture) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Picture(PictureData data) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record PictureData(String url) {}
+
+    public OAuthUserInfo toUserInfo() {
+        String photoUrl = picture != null && picture.data() != null ? picture.data().url() : null;
+        return OAuthUserInfo.builder()
+            .providerId(id)
+            .email(email)
+            .name(name)
+            .photoUrl(photoUrl)
+            .build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.api.infrastructure.oauth;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Chaves públicas (JWKS) de um provedor OIDC em memória, indexadas por kid.
+ *
+ * - Carga inicial e renovações em background, numa thread própria: a
+ *   verificação do id_token nunca espera a rede no caminho comum.
+ * - TTL vem do Cache-Control: max-age da resposta (padrão 1h); a renovação é
+ *   agendada para 90% do TTL. Em falha, as chaves atuais continuam em uso e
+ *   nova tentativa em 30s.
+ * - kid desconhecido (rotação de chaves) pede uma recarga à mesma thread, no
+ *   máximo uma a cada 30s. Chamadas concorrentes esperam a mesma recarga
+ *   (até 5s) — uma única busca na rede, e nenhuma feita pela thread do
+ *   chamador (que pode ser virtual).
+ * - jwks-uri aceita http(s), file: e classpath: (JWKS local para testes).
+ */
+@Slf4j
+public class JwksKeyCache implements AutoCloseable {
+
+    private static final Duration DEFAULT_TTL   = Duration.ofHours(1);
+    private static final Duration MIN_TTL       = Duration.ofMinutes(1);
+    private static final Duration RETRY_DELAY   = Duration.ofSeconds(30);
+    private static final Duration MIN_RELOAD_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration RELOAD_WAIT   = Duration.ofSeconds(5);
+    private static final Pattern  MAX_AGE       = Pattern.compile("max-age=(\\d+)");
+
+    private final String name;
+    private final String jwksUri;
+    private final RestTemplate restTemplate;
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Map<String, PublicKey> keys;
+    private volatile Instant lastAttempt = Instant.MIN;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private CompletableFuture<Void> pendingReload;   // guardado por reloadLock
+
+    public JwksKeyCache(String name, String jwksUri, RestTemplate restTemplate) {
+        this.name         = name;
+        this.jwksUri      = jwksUri;
+        this.restTemplate = restTemplate;
+        this.scheduler    = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("jwks-" + name).daemon().factory());
+        scheduler.execute(this::refreshAndReschedule);
+    }
+
+    /** Chave pública do kid; vazio se desconhecido mesmo após recarga. */
+    public Optional<PublicKey> find(String kid) {
+        Map<String, PublicKey> current = keys;
+        if (current != null && current.containsKey(kid)) {
+            return Optional.of(current.get(kid));
+        }
+
+        CompletableFuture<Void> reload = requestReload(kid);
+        if (reload != null) {
+            try {
+                reload.get(RELOAD_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                log.warn("JWKS '{}': recarga falhou: {}", name, e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                log.warn("JWKS '{}': recarga não terminou em {}s", name, RELOAD_WAIT.toSeconds());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        current = keys;
+        return current == null ? Optional.empty() : Optional.ofNullable(current.get(kid));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private void refreshAndReschedule() {
+        Duration next;
+        try {
+            next = load().multipliedBy(9).dividedBy(10);   // renova antes de vencer
+        } catch (Exception e) {
+            log.warn("JWKS '{}': falha ao carregar de {}: {}", name, jwksUri, e.getMessage());
+            next = RETRY_DELAY;
+        }
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::refreshAndReschedule, next.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Recarga compartilhada para um kid desconhecido; null se não há o que esperar
+     * (a chave já chegou ou a última tentativa foi há menos de 30s).
+     * Os testes são refeitos com o lock: quem chega depois de outra recarga não busca de novo.
+     */
+    private CompletableFuture<Void> requestReload(String kid) {
+        reloadLock.lock();
+        try {
+            if (pendingReload != null) return pendingReload;
+
+            Map<String, PublicKey> current = keys;
+            if (current != null && current.containsKey(kid)) return null;
+            if (Duration.between(lastAttempt, Instant.now()).compareTo(MIN_RELOAD_INTERVAL) < 0) return null;
+
+            lastAttempt = Instant.now();
+            CompletableFuture<Void> reload = new CompletableFuture<>();
+            scheduler.execute(() -> runReload(reload));
+            pendingReload = reload;
+            return reload;
+        } catch (RejectedExecutionException e) {
+            return null;   // cache fechado
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void runReload(CompletableFuture<Void> reload) {
+        Exception failure = null;
+        try {
+            load();
+        } catch (Exception e) {
+            failure = e;
+        }
+        reloadLock.lock();
+        try {
+            pendingReload = null;
+        } finally {
+            reloadLock.unlock();
+        }
+        if (failure == null) reload.complete(null);
+        else reload.completeExceptionally(failure);
+    }
+
+    /**
+     * Busca e troca o conjunto de chaves; devolve o TTL informado pela origem.
+     * Só roda na thread do scheduler — as cargas nunca se sobrepõem.
+     */
+    private Duration load() throws IOException {
+        lastAttempt = Instant.now();
+
+        String json;
+        Duration ttl;
+        if (jwksUri.startsWith("http:") || jwksUri.startsWith("https:")) {
+            ResponseEntity<String> response = restTemplate.getForEntity(jwksUri, String.class);
+            json = response.getBody();
+            ttl  = maxAge(response.getHeaders().getCacheControl());
+        } else {
+            try (InputStream in = resourceLoader.getResource(jwksUri).getInputStream()) {
+                json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            ttl = DEFAULT_TTL;
+        }
+
+        JwkSet set = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> loaded = new HashMap<>();
+        for (Jwk<?> jwk : set.getKeys()) {
+            if (jwk.getId() != null && jwk.toKey() instanceof PublicKey publicKey) {
+                loaded.put(jwk.getId(), publicKey);
+            }
+        }
+        keys = Map.copyOf(loaded);
+        log.info("JWKS '{}' carregado: {} chaves, ttl={}s", name, loaded.size(), ttl.toSeconds());
+        return ttl;
+    }
+
+    private static Duration maxAge(String cacheControl) {
+        if (cacheControl == null) return DEFAULT_TTL;
+        Matcher m = MAX_AGE.matcher(cacheControl);
+        if (!m.find()) return DEFAULT_TTL;
+        Duration ttl = Duration.ofSeconds(Long.parseLong(m.group(1)));
+        return ttl.compareTo(MIN_TTL) < 0 ? MIN_TTL : ttl;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.api.infrastructure.oauth;
+
+import com.example.api.domain.enums.AuthProvider;
+
+import java.util.Optional;
+
+/**
+ * SPI de um provedor OAuth2/OIDC. Instâncias são criadas a partir de
+ * app.oauth2.<id>.* e resolvidas pelo {@link OAuthProviderRegistry}.
+ */
+public interface OAuthProviderClient {
+
+    /** Id em minúsculas usado na requisição e na configuração (ex.: google). */
+    String id();
+
+    /** Provedor persistido em user_providers. */
+    AuthProvider provider();
+
+    /** Troca o authorization_code pelos tokens do provedor. */
+    OAuthTokenData exchangeCode(String code);
+
+    /** Dados do usuário via endpoint userinfo. */
+    OAuthUserInfo fetchUserInfo(OAuthTokenData token);
+
+    /**
+     * Dados do usuário a partir do id_token (OIDC), sem chamada extra ao provedor.
+     * Vazio se o provedor não emite id_token ou não o verifica localmente.
+     */
+    default Optional<OAuthUserInfo> verifyIdToken(String idToken) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.api.infrastructure.oauth;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuração de um provedor em app.oauth2.<id>.*.
+ * type escolhe a implementação (oidc, facebook); ausente → o próprio id.
+ * Timeouts/pool nulos usam os padrões de app.http-client.*.
+ * jwks-uri/issuers (só oidc): habilitam a verificação local do id_token.
+ * bulkhead/circuit-breaker/retry: isolamento por provedor (AbstractOAuthProviderClient).
+ */
+public record OAuthProviderProperties(
+    String type,
+    String clientId,
+    String clientSecret,
+    String redirectUri,
+    String tokenUri,
+    String userInfoUri,
+    String jwksUri,
+    List<String> issuers,
+    Long connectTimeoutMs,
+    Long readTimeoutMs,
+    Integer maxConnections,
+    @DefaultValue CircuitBreakerProperties circuitBreaker,
+    @DefaultValue BulkheadProperties bulkhead,
+    @DefaultValue RetryProperties retry
+) {
+
+    public record CircuitBreakerProperties(
+        @DefaultValue("5")  int failureThreshold,
+        @DefaultValue("30") long openSeconds
+    ) {}
+
+    public record BulkheadProperties(
+        @DefaultValue("20")  int maxConcurrent,
+        @DefaultValue("100") long maxWaitMs
+    ) {}
+
+    /** Só para chamadas idempotentes (userinfo); max-attempts inclui a primeira. */
+    public record RetryProperties(
+        @DefaultValue("2")   int maxAttempts,
+        @DefaultValue("100") long backoffMs
+    ) {}
+}
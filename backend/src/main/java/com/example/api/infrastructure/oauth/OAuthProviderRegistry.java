@@ -0,0 +1,39 @@
+package com.example.api.infrastructure.oauth;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Provedores OAuth configurados, indexados pelo id em minúsculas.
+ * Lookup O(1) sem exceção para ids desconhecidos.
+ * close() libera recursos dos provedores (ex.: thread de renovação do JWKS).
+ */
+public class OAuthProviderRegistry implements AutoCloseable {
+
+    private final Map<String, OAuthProviderClient> clients;
+
+    public OAuthProviderRegistry(Collection<? extends OAuthProviderClient> clients) {
+        this.clients = clients.stream()
+            .collect(Collectors.toUnmodifiableMap(OAuthProviderClient::id, Function.identity()));
+    }
+
+    public Optional<OAuthProviderClient> find(String id) {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(clients.get(id.toLowerCase(Locale.ROOT)));
+    }
+
+    public Collection<OAuthProviderClient> all() {
+        return clients.values();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (OAuthProviderClient client : clients.values()) {
+            if (client instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+}
@@ -2,4 +2,5 @@ package com.example.api.infrastructure.oauth;
 
 import java.time.LocalDateTime;
 
-public record OAuthTokenData(String accessToken, LocalDateTime expiresAt) {}
+/** idToken só é preenchido por provedores OIDC que o emitem (ex.: Google). */
+public record OAuthTokenData(String accessToken, LocalDateTime expiresAt, String idToken) {}
@@ -0,0 +1,25 @@
+package com.example.api.infrastructure.oauth;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resposta do token endpoint (Google e Facebook), decodificada direto do stream
+ * pelo Jackson — sem Map intermediário nem casts. expires_in é Long: o provedor
+ * pode devolver qualquer inteiro JSON. id_token só vem no Google (OIDC).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OAuthTokenResponse(
+    @JsonProperty("access_token") String accessToken,
+    @JsonProperty("expires_in")   Long expiresIn,
+    @JsonProperty("id_token")     String idToken
+) {
+
+    public OAuthTokenData toTokenData() {
+        LocalDateTime expiresAt = expiresIn != null
+            ? LocalDateTime.now().plusSeconds(expiresIn) : null;
+        return new OAuthTokenData(accessToken, expiresAt, idToken);
+    }
+}
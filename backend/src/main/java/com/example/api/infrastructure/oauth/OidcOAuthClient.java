@@ -0,0 +1,98 @@
+package com.example.api.infrastructure.oauth;
+
+import io.jsonwebtoken.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.security.Key;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Provedor OIDC padrão (type: oidc) — Google e qualquer provedor cujo userinfo
+ * devolva sub/email/name/picture com Bearer token.
+ *
+ * Com jwks-uri configurado, os dados do usuário vêm do id_token da resposta do
+ * token endpoint, com assinatura verificada localmente contra o JWKS em cache
+ * (aud = client-id, iss ∈ issuers, exp): o login faz uma chamada ao provedor em
+ * vez de duas. Se a verificação falhar, o userinfo é usado como fallback.
+ * Métrica: auth.oauth.id-token{provider, result=verified|fallback}.
+ *
+ * O redirect_uri usado na troca do code DEVE estar cadastrado no console do
+ * provedor como URI autorizada.
+ */
+@Slf4j
+public class OidcOAuthClient extends AbstractOAuthProviderClient implements AutoCloseable {
+
+    private final JwksKeyCache jwks;            // null sem jwks-uri → sempre userinfo
+    private final JwtParser idTokenParser;
+    private final List<String> issuers;
+    private final Counter verified;
+    private final Counter fallback;
+
+    public OidcOAuthClient(String id, OAuthProviderProperties properties, RestTemplate restTemplate,
+                           MeterRegistry meterRegistry) {
+        super(id, properties, restTemplate, meterRegistry);
+        this.jwks     = properties.jwksUri() != null ? new JwksKeyCache(id, properties.jwksUri(), restTemplate) : null;
+        this.issuers  = properties.issuers() != null ? properties.issuers() : List.of();
+        this.verified = meterRegistry.counter("auth.oauth.id-token", "provider", id, "result", "verified");
+        this.fallback = meterRegistry.counter("auth.oauth.id-token", "provider", id, "result", "fallback");
+        this.idTokenParser = jwks == null ? null : Jwts.parser()
+            .keyLocator(new LocatorAdapter<Key>() {
+                @Override
+                protected Key locate(JwsHeader header) {
+                    return jwks.find(header.getKeyId())
+                        .orElseThrow(() -> new UnsupportedJwtException("kid desconhecido: " + header.getKeyId()));
+                }
+            })
+            .requireAudience(properties.clientId())
+            .clockSkewSeconds(60)
+            .build();
+    }
+
+    @Override
+    public Optional<OAuthUserInfo> verifyIdToken(String idToken) {
+        if (idTokenParser == null) return Optional.empty();
+        try {
+            Claims claims = idTokenParser.parseSignedClaims(idToken).getPayload();
+            if (!issuers.isEmpty() && !issuers.contains(claims.getIssuer())) {
+                throw new IncorrectClaimException(null, claims, Claims.ISSUER, claims.getIssuer(),
+                    "iss inesperado: " + claims.getIssuer());
+            }
+            verified.increment();
+
+            // Email não verificado não é usado (vincularia contas pelo email)
+            boolean emailVerified = !Boolean.FALSE.equals(claims.get("email_verified", Boolean.class));
+            return Optional.of(OAuthUserInfo.builder()
+                .providerId(claims.getSubject())
+                .email(emailVerified ? claims.get("email", String.class) : null)
+                .name(claims.get("name", String.class))
+                .photoUrl(claims.get("picture", String.class))
+                .build());
+        } catch (JwtException | IllegalArgumentException e) {
+            fallback.increment();
+            log.warn("{}: id_token não verificado ({}), usando userinfo", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public OAuthUserInfo fetchUserInfo(OAuthTokenData token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token.accessToken());
+
+        OidcUserInfoResponse info = callIdempotent(() -> restTemplate.exchange(properties.userInfoUri(),
+            HttpMethod.GET, new HttpEntity<>(headers), OidcUserInfoResponse.class).getBody());
+
+        if (info == null) throw new RuntimeException(id + ": userinfo vazio");
+        return info.toUserInfo();
+    }
+
+    @Override
+    public void close() {
+        if (jwks != null) jwks.close();
+    }
+}
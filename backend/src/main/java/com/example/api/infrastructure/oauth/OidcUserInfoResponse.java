@@ -0,0 +1,17 @@
+package com.example.api.infrastructure.oauth;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/** Resposta de um userinfo OIDC padrão (Google etc.; só os campos usados). */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OidcUserInfoResponse(String sub, String email, String name, String picture) {
+
+    public OAuthUserInfo toUserInfo() {
+        return OAuthUserInfo.builder()
+            .providerId(sub)
+            .email(email)
+            .name(name)
+            .photoUrl(picture)
+            .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.api.infrastructure.persistence;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Mantém as partições diárias de refresh_tokens (ver V6):
+ * 1. Cria partições para os próximos premake-days dias, dividindo pmax.
+ *    A V6 já cria as partições diárias que cobrem os tokens existentes, então
+ *    pmax fica vazia e o REORGANIZE não move linhas. Se pmax tiver linhas
+ *    (manutenção parada por mais de premake-days, ou tabela particionada antes
+ *    dessa V6), o REORGANIZE copiaria todas bloqueando login/refresh: a criação
+ *    é recusada e o log pede a divisão manual em janela de manutenção.
+ * 2. Remove (DROP PARTITION) os dias inteiramente expirados — custo constante,
+ *    sem DELETE linha a linha, sem undo log.
+ *
+ * Partição pYYYYMMDD contém os tokens que expiram naquele dia
+ * (VALUES LESS THAN TO_DAYS do dia seguinte).
+ *
+ * Datas em UTC, como expires_at é gravado (hibernate.jdbc.time_zone=UTC) —
+ * nunca o fuso da JVM. O DROP ainda espera um dia de folga após o último
+ * token da partição expirar.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenPartitionManager {
+
+    private static final String TABLE = "refresh_tokens";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    /** TO_DAYS('1970-01-01') no MySQL — converte PARTITION_DESCRIPTION em LocalDate. */
+    private static final long TO_DAYS_EPOCH = 719_528L;
+    /** Dias de folga entre a expiração do último token da partição e o DROP. */
+    private static final int DROP_SAFETY_DAYS = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.maintenance.token-partitions.premake-days:10}")
+    private int premakeDays;
+
+    private record Partition(String name, LocalDate upperBound) {}
+
+    public void maintain() {
+        List<Partition> daily = readDailyPartitions();
+        if (daily == null) {
+            log.warn("{} não está particionada — manutenção de partições ignorada", TABLE);
+            return;
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        createFuturePartitions(daily, today);
+        dropExpiredPartitions(daily, today);
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    /** Partições diárias em ordem; null se a tabela não tem pmax (não particionada). */
+    private List<Partition> readDailyPartitions() {
+        List<Partition> daily = new ArrayList<>();
+        boolean[] hasMax = {false};
+
+        jdbcTemplate.query("""
+            SELECT PARTITION_NAME, PARTITION_DESCRIPTION
+              FROM information_schema.PARTITIONS
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+             ORDER BY PARTITION_ORDINAL_POSITION
+            """, rs -> {
+            String name = rs.getString(1);
+            if (MAX_PARTITION.equals(name)) {
+                hasMax[0] = true;
+            } else {
+                LocalDate bound = LocalDate.ofEpochDay(Long.parseLong(rs.getString(2)) - TO_DAYS_EPOCH);
+                daily.add(new Partition(name, bound));
+            }
+        }, TABLE);
+
+        return hasMax[0] ? daily : null;
+    }
+
+    private void createFuturePartitions(List<Partition> daily, LocalDate today) {
+        // Sem partições diárias (só pmax, vazia): começa hoje
+        LocalDate nextDay = daily.isEmpty() ? today : daily.get(daily.size() - 1).upperBound();
+        LocalDate lastDay = today.plusDays(premakeDays);
+        if (nextDay.isAfter(lastDay)) return;
+        if (maxPartitionHasRows()) {
+            log.error("{}: partição {} tem linhas — REORGANIZE recusado para não copiar a tabela em horário "
+                + "de uso. Divida {} manualmente em janela de manutenção (partições diárias até {})",
+                TABLE, MAX_PARTITION, MAX_PARTITION, lastDay);
+            return;
+        }
+
+        StringJoiner parts = new StringJoiner(", ");
+        for (LocalDate day = nextDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            parts.add("PARTITION %s VALUES LESS THAN (TO_DAYS('%s'))".formatted(
+                day.format(NAME_FORMAT), day.plusDays(1)));
+        }
+        parts.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN MAXVALUE");
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION
+            + " INTO (" + parts + ")");
+        log.info("Partições de {} criadas de {} até {}", TABLE, nextDay, lastDay);
+    }
+
+    private boolean maxPartitionHasRows() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM " + TABLE + " PARTITION (" + MAX_PARTITION + "))", Boolean.class));
+    }
+
+    private void dropExpiredPartitions(List<Partition> daily, LocalDate today) {
+        LocalDate dropBefore = today.minusDays(DROP_SAFETY_DAYS);
+        List<String> expired = daily.stream()
+            .filter(p -> !p.upperBound().isAfter(dropBefore))   // expirados há mais de um dia
+            .map(Partition::name)
+            .toList();
+        if (expired.isEmpty()) return;
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+        log.info("Partições expiradas de {} removidas: {}", TABLE, expired);
+    }
+}
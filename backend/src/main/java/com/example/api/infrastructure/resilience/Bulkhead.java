@@ -0,0 +1,61 @@
+package com.example.api.infrastructure.resilience;
+
+import com.example.api.application.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limite de chamadas simultâneas a uma dependência (semáforo).
+ * Sem vaga em maxWait o chamador recebe {@link ServiceUnavailableException}
+ * (503 + Retry-After) em vez de ficar preso atrás de uma dependência lenta —
+ * as threads do Tomcat e as conexões do Hikari continuam livres para o resto.
+ */
+public class Bulkhead {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait) {
+        this.name          = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait       = maxWait;
+        this.permits       = new Semaphore(maxConcurrent);
+    }
+
+    public <T> T call(Supplier<T> action) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(name + ": interrompido aguardando vaga", e);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new ServiceUnavailableException(name + " saturado, tente novamente em instantes", RETRY_AFTER);
+        }
+
+        try {
+            return action.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+}
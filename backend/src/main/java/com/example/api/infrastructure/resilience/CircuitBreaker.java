@@ -0,0 +1,110 @@
+package com.example.api.infrastructure.resilience;
+
+import com.example.api.application.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker simples por contagem de falhas consecutivas.
+ * - CLOSED: chamadas passam; failureThreshold falhas seguidas → OPEN.
+ * - OPEN: falha imediata com {@link ServiceUnavailableException} (503 + Retry-After)
+ *   até openDuration passar → HALF_OPEN.
+ * - HALF_OPEN: uma única chamada de teste; sucesso → CLOSED, falha → OPEN de novo.
+ *
+ * Só exceções aceitas por isFailure contam como falha (ex.: 4xx do provedor não);
+ * Errors sempre contam.
+ * rejectedCount(): chamadas recusadas sem executar (circuito aberto).
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Predicate<RuntimeException> isFailure;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openUntil = Instant.MIN;
+    private boolean probeInFlight;
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration,
+                          Predicate<RuntimeException> isFailure) {
+        this.name             = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration     = openDuration;
+        this.isFailure        = isFailure;
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquirePermission();
+        try {
+            T result = action.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isFailure.test(e)) onFailure();
+            else onSuccess();
+            throw e;
+        } catch (Throwable t) {
+            // Error (ou checked lançada às escondidas): conta como falha — sem isso a
+            // chamada de teste do HALF_OPEN ficaria em andamento para sempre
+            onFailure();
+            throw t;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            Duration remaining = Duration.between(Instant.now(), openUntil);
+            if (remaining.isPositive()) {
+                rejected.increment();
+                throw new ServiceUnavailableException(name + " temporariamente indisponível", remaining);
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                rejected.increment();
+                throw new ServiceUnavailableException(name + " temporariamente indisponível", openDuration);
+            }
+            probeInFlight = true;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        if (state != State.CLOSED) log.info("Circuit breaker '{}' fechado", name);
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntil = Instant.now().plus(openDuration);
+            consecutiveFailures = 0;
+            probeInFlight = false;
+            log.warn("Circuit breaker '{}' aberto por {}s", name, openDuration.toSeconds());
+        }
+    }
+}
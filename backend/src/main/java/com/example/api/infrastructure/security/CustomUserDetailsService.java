@@ -2,12 +2,15 @@ package com.example.api.infrastructure.security;
 
 import com.example.api.domain.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -21,4 +24,18 @@ public class CustomUserDetailsService implements UserDetailsService {
             .roles("USER")
             .build();
     }
+
+    /**
+     * Chamado pelo DaoAuthenticationProvider após um login bem-sucedido cujo hash
+     * está com algoritmo ou custo desatualizado — newPassword já vem re-encodado.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByEmail(user.getUsername()).ifPresent(domainUser -> {
+            domainUser.setPassword(newPassword);
+            log.info("Hash de senha atualizado. userId={}", domainUser.getId());
+        });
+        return User.withUserDetails(user).password(newPassword).build();
+    }
 }
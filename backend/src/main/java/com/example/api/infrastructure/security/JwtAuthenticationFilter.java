@@ -4,6 +4,7 @@ import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,9 +19,16 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final VerifiedTokenCache tokenCache;
     private final CustomUserDetailsService userDetailsService;
 
+    /**
+     * true  → principal montado só a partir das claims verificadas (sem banco).
+     * false → carrega o usuário via UserDetailsService a cada requisição.
+     */
+    @Value("${app.jwt.stateless:true}")
+    private boolean stateless;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -36,12 +44,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            String username = jwtService.extractUsername(token);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // No máximo uma verificação de assinatura por requisição (zero se em cache)
+                VerifiedJwt jwt = tokenCache.verify(token);
+                UserDetails userDetails = stateless
+                    ? jwt.toPrincipal()
+                    : loadFromDatabase(jwt);
 
-                if (jwtService.isTokenValid(token, userDetails)) {
+                if (userDetails != null) {
                     var auth = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                     auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -58,7 +68,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
-        // Não processa JWT para endpoints públicos de auth
-        return path.startsWith("/api/v1/auth/");
+        // Não processa JWT para endpoints públicos de auth — exceto logout, que
+        // precisa do principal para saber qual sessão encerrar
+        return path.startsWith("/api/v1/auth/") && !path.equals("/api/v1/auth/logout");
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private UserDetails loadFromDatabase(VerifiedJwt jwt) {
+        if (jwt.subject() == null) return null;
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(jwt.subject());
+        return jwt.subject().equals(userDetails.getUsername()) ? userDetails : null;
     }
 }
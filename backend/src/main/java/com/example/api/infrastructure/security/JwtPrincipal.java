@@ -0,0 +1,29 @@
+package com.example.api.infrastructure.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal montado apenas a partir das claims de um JWT já verificado.
+ * Não consulta o banco: userId, name e sub vêm do token emitido por
+ * {@link JwtService#generateAccessToken}. familyId é a família de refresh
+ * tokens da sessão (claim "fid"); null em tokens emitidos antes dela existir.
+ */
+public record JwtPrincipal(Long userId, String username, String name, String familyId) implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES =
+        List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    @Override public Collection<? extends GrantedAuthority> getAuthorities() { return AUTHORITIES; }
+    @Override public String getPassword()  { return null; }
+    @Override public String getUsername()  { return username; }
+
+    @Override public boolean isAccountNonExpired()     { return true; }
+    @Override public boolean isAccountNonLocked()      { return true; }
+    @Override public boolean isCredentialsNonExpired() { return true; }
+    @Override public boolean isEnabled()               { return true; }
+}
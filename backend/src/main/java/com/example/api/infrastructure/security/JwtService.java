@@ -22,6 +22,7 @@ import java.util.function.Function;
 public class JwtService {
 
     private final SecretKey signingKey;
+    private final JwtParser parser;      // imutável e thread-safe: criado uma única vez
     private final long expirationMs;
     private final long refreshExpirationMs;
 
@@ -31,13 +32,20 @@ public class JwtService {
         @Value("${app.jwt.refresh-expiration-ms}") long refreshExpirationMs
     ) {
         this.signingKey        = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser            = Jwts.parser().verifyWith(signingKey).build();
         this.expirationMs      = expirationMs;
         this.refreshExpirationMs = refreshExpirationMs;
     }
 
     public String generateAccessToken(User user) {
+        return generateAccessToken(user, null);
+    }
+
+    /** familyId vai na claim "fid": permite derrubar os access tokens da sessão no logout/reuso. */
+    public String generateAccessToken(User user, String familyId) {
         return Jwts.builder()
             .claims(Map.of("userId", user.getId(), "name", user.getName()))
+            .claim("fid", familyId)
             .subject(user.getEmail() != null ? user.getEmail() : String.valueOf(user.getId()))
             .issuedAt(new Date())
             .expiration(new Date(System.currentTimeMillis() + expirationMs))
@@ -64,6 +72,22 @@ public class JwtService {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Verifica assinatura e expiração uma única vez e devolve as claims já tipadas.
+     * Tokens expirados ou adulterados lançam {@link JwtException}.
+     */
+    public VerifiedJwt verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedJwt(
+            claims.getSubject(),
+            claims.get("userId", Long.class),
+            claims.get("name", String.class),
+            claims.get("fid", String.class),
+            claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+            claims.getExpiration().toInstant()
+        );
+    }
+
     public Long extractUserId(String token) {
         return extractClaim(token, c -> c.get("userId", Long.class));
     }
@@ -74,8 +98,8 @@ public class JwtService {
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            return extractUsername(token).equals(userDetails.getUsername())
-                && !extractClaim(token, Claims::getExpiration).before(new Date());
+            // O parser já rejeita tokens expirados; basta conferir o subject
+            return verify(token).subject().equals(userDetails.getUsername());
         } catch (JwtException e) {
             log.warn("JWT inválido: {}", e.getMessage());
             return false;
@@ -86,7 +110,6 @@ public class JwtService {
     public long getRefreshExpirationMs() { return refreshExpirationMs; }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().verifyWith(signingKey).build()
-            .parseSignedClaims(token).getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
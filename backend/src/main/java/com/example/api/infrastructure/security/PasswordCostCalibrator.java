@@ -0,0 +1,68 @@
+package com.example.api.infrastructure.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Escolhe, no startup, o custo do hash de senha que mais se aproxima de um
+ * orçamento de latência medido no próprio host.
+ *
+ * BCrypt: cada +1 de strength dobra o custo → mede uma vez numa strength
+ * baixa e extrapola em log2.
+ * Argon2: custo linear nas iterações → mede 1 iteração e multiplica.
+ */
+@Slf4j
+public final class PasswordCostCalibrator {
+
+    private static final int    BCRYPT_BASE_STRENGTH = 8;
+    private static final int    BCRYPT_MIN_STRENGTH  = 10;
+    private static final int    BCRYPT_MAX_STRENGTH  = 16;
+    private static final int    ARGON2_MAX_ITERATIONS = 10;
+    private static final int    SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private PasswordCostCalibrator() {}
+
+    public static int bcryptStrength(Duration target) {
+        long baseNanos = measure(new BCryptPasswordEncoder(BCRYPT_BASE_STRENGTH));
+        int extra = (int) Math.round(Math.log((double) target.toNanos() / baseNanos) / Math.log(2));
+        int strength = clamp(BCRYPT_BASE_STRENGTH + extra, BCRYPT_MIN_STRENGTH, BCRYPT_MAX_STRENGTH);
+
+        log.info("Calibração BCrypt: strength {} medido em {}µs → strength {} (alvo {}ms)",
+            BCRYPT_BASE_STRENGTH, baseNanos / 1_000, strength, target.toMillis());
+        return strength;
+    }
+
+    public static int argon2Iterations(Duration target, int saltLength, int hashLength,
+                                       int parallelism, int memoryKb) {
+        long oneIteration = measure(new Argon2PasswordEncoder(saltLength, hashLength, parallelism, memoryKb, 1));
+        int iterations = clamp((int) Math.round((double) target.toNanos() / oneIteration), 1, ARGON2_MAX_ITERATIONS);
+
+        log.info("Calibração Argon2: 1 iteração ({} KiB) medida em {}µs → {} iterações (alvo {}ms)",
+            memoryKb, oneIteration / 1_000, iterations, target.toMillis());
+        return iterations;
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    /** Mediana de algumas execuções, após uma de aquecimento. */
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long t0 = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - t0;
+        }
+        java.util.Arrays.sort(samples);
+        return Math.max(1, samples[SAMPLES / 2]);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
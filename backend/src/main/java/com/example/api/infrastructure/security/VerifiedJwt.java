@@ -0,0 +1,21 @@
+package com.example.api.infrastructure.security;
+
+import java.time.Instant;
+
+/**
+ * Claims de um access token cuja assinatura e expiração já foram verificadas.
+ * Imutável: pode ser compartilhado entre threads e reutilizado sem reparse.
+ */
+public record VerifiedJwt(
+    String subject,
+    Long userId,
+    String name,
+    String familyId,
+    Instant issuedAt,
+    Instant expiresAt
+) {
+
+    public JwtPrincipal toPrincipal() {
+        return new JwtPrincipal(userId, subject, name, familyId);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.api.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache opcional de access tokens já verificados.
+ * Chave: SHA-256 do token (o valor puro nunca fica em memória como chave).
+ * Cada entrada expira exatamente no exp do token; o tamanho é limitado e a
+ * remoção segue a política W-TinyLFU do Caffeine.
+ *
+ * Métricas (hits, misses, evictions) em /actuator/metrics/cache.* com cache=jwt.verified.
+ *
+ * Famílias revogadas (logout, reuso de refresh token) entram numa denylist em
+ * memória pelo tempo de vida de um access token: tokens da família deixam de
+ * ser aceitos neste nó mesmo com assinatura válida. Outras réplicas continuam
+ * aceitando até o exp (no máximo app.jwt.expiration-ms).
+ * A denylist não tem limite de tamanho nem compartilha a política do cache:
+ * uma entrada só sai quando todo access token da família já expirou, então
+ * nenhuma remoção desfaz uma revogação. Memória ≈ revogações por janela de
+ * expiration-ms (~100 B cada); tamanho em jwt.revoked-families.
+ *
+ * invalidateUser usa um índice userId → chaves do cache (mantido na carga e na
+ * remoção das entradas), sem varrer o cache inteiro.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final JwtService jwtService;
+    private final boolean enabled;
+    private final Cache<String, VerifiedJwt> cache;
+    private final Cache<String, Boolean> revokedFamilies;
+    private final ConcurrentMap<Long, Set<String>> keysByUser = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(
+        JwtService jwtService,
+        MeterRegistry meterRegistry,
+        @Value("${app.jwt.cache.enabled:false}") boolean enabled,
+        @Value("${app.jwt.cache.max-size:10000}") long maxSize
+    ) {
+        this.jwtService = jwtService;
+        this.enabled    = enabled;
+        this.cache      = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new ExpireAtTokenExp())
+            .removalListener((String key, VerifiedJwt jwt, RemovalCause cause) -> unindex(key, jwt))
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+        // Só expiração, nunca por tamanho: o TTL cobre o exp de qualquer token já emitido
+        this.revokedFamilies = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(jwtService.getExpirationMs()))
+            .build();
+        Gauge.builder("jwt.revoked-families", revokedFamilies, Cache::estimatedSize)
+            .description("Famílias de sessão revogadas na denylist local")
+            .register(meterRegistry);
+
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+            log.info("Cache de JWT verificados habilitado. maxSize={}", maxSize);
+        }
+    }
+
+    /**
+     * Devolve as claims do token, verificando assinatura só no primeiro acesso.
+     * Tokens inválidos lançam a mesma exceção de {@link JwtService#verify} e não são cacheados.
+     */
+    public VerifiedJwt verify(String token) {
+        VerifiedJwt jwt = enabled
+            ? cache.get(digest(token), k -> index(k, jwtService.verify(token)))
+            : jwtService.verify(token);
+
+        if (jwt.familyId() != null && revokedFamilies.getIfPresent(jwt.familyId()) != null) {
+            throw new JwtException("Sessão revogada");
+        }
+        return jwt;
+    }
+
+    /**
+     * Derruba os access tokens de uma família (logout do dispositivo, reuso detectado).
+     * O cache não precisa ser varrido: verify consulta a denylist em todo acesso.
+     */
+    public void revokeFamily(String familyId) {
+        if (familyId == null) return;
+        revokedFamilies.put(familyId, Boolean.TRUE);
+    }
+
+    /** Remove todas as entradas do usuário (ex.: logout), pelo índice. */
+    public void invalidateUser(Long userId) {
+        if (!enabled || userId == null) return;
+        Set<String> keys = keysByUser.remove(userId);
+        if (keys != null) cache.invalidateAll(keys);
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    private VerifiedJwt index(String key, VerifiedJwt jwt) {
+        if (jwt.userId() != null) {
+            keysByUser.compute(jwt.userId(), (u, keys) -> {
+                Set<String> set = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                set.add(key);
+                return set;
+            });
+        }
+        return jwt;
+    }
+
+    /**
+     * Chamado na remoção da entrada (expiração, tamanho, invalidate). Numa corrida
+     * com a recarga da mesma chave a entrada pode ficar fora do índice: ela só
+     * deixa de ser descartada pelo invalidateUser — a denylist não depende do índice.
+     */
+    private void unindex(String key, VerifiedJwt jwt) {
+        if (key == null || jwt == null || jwt.userId() == null) return;
+        keysByUser.computeIfPresent(jwt.userId(), (u, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    /** TTL por entrada = tempo restante até o exp do próprio token. */
+    private static final class ExpireAtTokenExp implements Expiry<String, VerifiedJwt> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedJwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedJwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedJwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
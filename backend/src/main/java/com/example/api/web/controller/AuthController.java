@@ -2,6 +2,7 @@ package com.example.api.web.controller;
 
 import com.example.api.application.auth.AuthService;
 import com.example.api.application.user.UserService;
+import com.example.api.infrastructure.security.JwtPrincipal;
 import com.example.api.web.dto.request.*;
 import com.example.api.web.dto.response.AuthResponse;
 import jakarta.validation.Valid;
@@ -34,6 +35,10 @@ public class AuthController {
     /**
      * POST /api/v1/auth/oauth/callback
      * Recebe o code do Angular (após redirect do provedor) e troca por JWT interno.
+     * O mesmo code reenviado enquanto o primeiro envio está em andamento (dupla
+     * navegação) é trocado uma única vez no provedor, mas cada envio recebe uma
+     * sessão própria, com tokens distintos. Reenviado depois que o primeiro
+     * terminou, vai de novo ao provedor, que recusa o code já usado.
      */
     @PostMapping("/oauth/callback")
     public ResponseEntity<AuthResponse> oauthCallback(@Valid @RequestBody OAuthCallbackRequest req) {
@@ -49,8 +54,15 @@ public class AuthController {
     /** POST /api/v1/auth/logout — requer Bearer token */
     @PostMapping("/logout")
     public ResponseEntity<Void> logout(@AuthenticationPrincipal UserDetails userDetails) {
-        userService.findByEmail(userDetails.getUsername())
-            .ifPresent(authService::logout);
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (userDetails instanceof JwtPrincipal jwt && jwt.familyId() != null) {
+            authService.logout(jwt.userId(), jwt.familyId());
+        } else {
+            userService.findByEmail(userDetails.getUsername())
+                .ifPresent(authService::logout);
+        }
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,6 +1,7 @@
 package com.example.api.web.controller;
 
 import com.example.api.application.user.UserService;
+import com.example.api.infrastructure.security.JwtPrincipal;
 import com.example.api.web.dto.response.UserResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -8,6 +9,8 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
@@ -18,8 +21,12 @@ public class UserController {
     /** GET /api/v1/users/me — retorna dados do usuário autenticado */
     @GetMapping("/me")
     public ResponseEntity<UserResponse> me(@AuthenticationPrincipal UserDetails userDetails) {
-        return userService.findByEmail(userDetails.getUsername())
-            .map(userService::toResponse)
+        // Principal vindo do JWT já traz o id → projeção em cache, sem banco
+        Optional<UserResponse> response = userDetails instanceof JwtPrincipal jwt && jwt.userId() != null
+            ? userService.findResponseById(jwt.userId())
+            : userService.findResponseByEmail(userDetails.getUsername());
+
+        return response
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -0,0 +1,147 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Preenche users.email_normalized (V9) em lotes pela PK, com commit por lote:
+ * nenhuma transação longa nem lock na tabela inteira.
+ *
+ * Emails que colidem após a normalização falham a migração — nunca ficam NULL
+ * em silêncio (o usuário perderia o login pela busca normalizada, e o próximo
+ * UPDATE da linha, que preenche a coluna via @PreUpdate, violaria o UNIQUE):
+ * 1. Antes de gravar, uma consulta agrupa TRIM(email) na collation da coluna
+ *    (a mesma do UNIQUE) e lista os grupos duplicados.
+ * 2. O UPDATE é sem IGNORE: uma colisão que escape da consulta derruba a
+ *    migração com os dois ids envolvidos.
+ * Resolva os duplicados (mesclar contas ou alterar o email), rode
+ * {@code flyway repair} e migre de novo: lotes já gravados não são refeitos.
+ *
+ * A normalização é uma cópia congelada da regra de User.normalizeEmail na
+ * época da V9 — mudanças futuras na entidade não alteram o que esta migração faz.
+ */
+@Slf4j
+public class V10__BackfillUsersEmailNormalized extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int MAX_REPORTED = 100;
+
+    private record Row(long id, String email) {}
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;   // commit por lote
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        failOnDuplicates(connection);
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        long lastId = 0;
+        long processed = 0;
+        try (PreparedStatement select = connection.prepareStatement("""
+                 SELECT id, email FROM users
+                  WHERE id > ? AND email IS NOT NULL AND email_normalized IS NULL
+                  ORDER BY id LIMIT ?
+                 """);
+             PreparedStatement update = connection.prepareStatement(
+                 // updated_at = updated_at: backfill não conta como alteração do usuário
+                 "UPDATE users SET email_normalized = ?, updated_at = updated_at WHERE id = ?")) {
+
+            List<Row> batch;
+            do {
+                batch = nextBatch(select, lastId);
+                for (Row row : batch) {
+                    String normalized = normalize(row.email());
+                    update.setString(1, normalized);
+                    update.setLong(2, row.id());
+                    try {
+                        update.executeUpdate();
+                    } catch (SQLIntegrityConstraintViolationException e) {
+                        connection.rollback();
+                        throw collision(connection, row.id(), normalized, e);
+                    }
+                }
+                connection.commit();
+
+                processed += batch.size();
+                if (!batch.isEmpty()) lastId = batch.get(batch.size() - 1).id();
+            } while (batch.size() == BATCH_SIZE);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        log.info("email_normalized: {} usuários processados", processed);
+    }
+
+    // ── internos ──────────────────────────────────────────────
+
+    /** trim + minúsculas (Locale.ROOT); vazio → null. Não mudar: migração já aplicada. */
+    private static String normalize(String email) {
+        if (email.isBlank()) return null;
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Grupos de usuários que ocupariam o mesmo email_normalized (até MAX_REPORTED). */
+    private static void failOnDuplicates(Connection connection) throws SQLException {
+        List<String> groups = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("""
+                 SELECT MIN(TRIM(email)), GROUP_CONCAT(id ORDER BY id)
+                   FROM users
+                  WHERE email IS NOT NULL
+                  GROUP BY TRIM(email)
+                 HAVING COUNT(*) > 1
+                  LIMIT ?
+                 """)) {
+            ps.setInt(1, MAX_REPORTED);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) groups.add(rs.getString(1) + " → ids [" + rs.getString(2) + "]");
+            }
+        }
+        if (groups.isEmpty()) return;
+
+        groups.forEach(g -> log.error("email_normalized duplicado: {}", g));
+        throw new FlywayException(("V10: %d+ grupos de usuários com o mesmo email após normalização "
+            + "(ver log; primeiro: %s). Resolva os duplicados, rode flyway repair e migre novamente.")
+            .formatted(groups.size(), groups.get(0)));
+    }
+
+    private static FlywayException collision(Connection connection, long id, String normalized,
+                                             SQLException cause) throws SQLException {
+        Long holder = null;
+        try (PreparedStatement ps = connection.prepareStatement(
+                 "SELECT id FROM users WHERE email_normalized = ?")) {
+            ps.setString(1, normalized);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) holder = rs.getLong(1);
+            }
+        }
+        return new FlywayException(("V10: usuário %d colide com o usuário %s em email_normalized '%s'. "
+            + "Resolva o duplicado, rode flyway repair e migre novamente.").formatted(id, holder, normalized), cause);
+    }
+
+    private static List<Row> nextBatch(PreparedStatement select, long afterId) throws Exception {
+        select.setLong(1, afterId);
+        select.setInt(2, BATCH_SIZE);
+        List<Row> rows = new ArrayList<>(BATCH_SIZE);
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) rows.add(new Row(rs.getLong(1), rs.getString(2)));
+        }
+        return rows;
+    }
+}
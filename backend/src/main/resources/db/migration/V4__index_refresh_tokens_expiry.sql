@@ -0,0 +1,6 @@
+-- V4__index_refresh_tokens_expiry.sql
+-- Índices usados pela limpeza em lotes (RefreshTokenPurger).
+-- Sem eles cada lote do DELETE varre a tabela inteira.
+
+CREATE INDEX idx_rt_expires_at ON refresh_tokens (expires_at);
+CREATE INDEX idx_rt_revoked_at ON refresh_tokens (revoked_at);
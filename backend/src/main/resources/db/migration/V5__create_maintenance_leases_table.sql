@@ -0,0 +1,13 @@
+-- V5__create_maintenance_leases_table.sql
+-- Leases de coordenação entre réplicas para jobs de manutenção.
+-- Uma linha por job (ou por shard de job). Só o dono (owner) pode renovar
+-- enquanto locked_until não passou; depois disso qualquer nó pode assumir.
+
+CREATE TABLE maintenance_leases (
+    name          VARCHAR(100) NOT NULL,   -- ex: refresh-token-purge, refresh-token-purge:shard-3
+    owner         VARCHAR(255) NOT NULL,   -- id do nó (host:pid)
+    locked_until  DATETIME(6)  NOT NULL,
+    acquired_at   DATETIME(6)  NOT NULL,
+
+    PRIMARY KEY (name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
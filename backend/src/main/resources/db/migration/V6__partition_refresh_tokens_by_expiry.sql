@@ -0,0 +1,53 @@
+-- V6__partition_refresh_tokens_by_expiry.sql
+-- Particiona refresh_tokens por dia de expiração (RANGE sobre TO_DAYS(expires_at)).
+-- Expirar um dia inteiro vira um DROP PARTITION em vez de DELETE linha a linha.
+--
+-- Restrições do MySQL para tabelas particionadas:
+-- 1. Toda chave PRIMARY/UNIQUE precisa conter a coluna de particionamento:
+--    PK passa a ser (id, expires_at) e token_hash deixa de ser UNIQUE.
+--    O hash continua indexado (idx_rt_hash) — é SHA-256 de 256 bits aleatórios,
+--    colisão não é um cenário real.
+-- 2. Tabelas particionadas não suportam FOREIGN KEY: fk_rt_user é removida.
+--    A aplicação não apaga usuários; se um dia apagar, deve revogar/remover os
+--    tokens explicitamente (antes era ON DELETE CASCADE).
+--
+-- As partições diárias já nascem aqui: de hoje (UTC; a primeira recebe também
+-- os tokens já expirados) até o maior entre expires_at e hoje + 10 dias
+-- (premake-days). pmax começa vazia, e o RefreshTokenPartitionManager só
+-- precisa dividi-la, sem mover linhas.
+-- Em tabelas grandes o ALTER copia a tabela: aplicar em janela de manutenção.
+
+ALTER TABLE refresh_tokens DROP FOREIGN KEY fk_rt_user;
+
+ALTER TABLE refresh_tokens
+    DROP INDEX uq_rt_hash,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, expires_at);
+
+-- Limites de partição precisam ser constantes: o DDL é montado e preparado
+SET SESSION group_concat_max_len = 65536;
+
+SET @first_day = UTC_DATE();
+SELECT GREATEST(@first_day + INTERVAL 10 DAY, COALESCE(DATE(MAX(expires_at)), @first_day))
+  FROM refresh_tokens
+  INTO @last_day;
+
+WITH RECURSIVE days (d) AS (
+    SELECT CAST(@first_day AS DATE)
+    UNION ALL
+    SELECT d + INTERVAL 1 DAY FROM days WHERE d < @last_day
+)
+SELECT GROUP_CONCAT(
+           CONCAT('PARTITION p', DATE_FORMAT(d, '%Y%m%d'),
+                  ' VALUES LESS THAN (TO_DAYS(''', d + INTERVAL 1 DAY, '''))')
+           ORDER BY d SEPARATOR ', ')
+  FROM days
+  INTO @daily;
+
+SET @partition_ddl = CONCAT(
+    'ALTER TABLE refresh_tokens PARTITION BY RANGE (TO_DAYS(expires_at)) (',
+    @daily, ', PARTITION pmax VALUES LESS THAN MAXVALUE)');
+
+PREPARE partition_stmt FROM @partition_ddl;
+EXECUTE partition_stmt;
+DEALLOCATE PREPARE partition_stmt;
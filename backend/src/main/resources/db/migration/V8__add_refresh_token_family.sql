@@ -0,0 +1,16 @@
+-- V8__add_refresh_token_family.sql
+-- Família de refresh tokens: todos os tokens de uma mesma sessão (login em um
+-- dispositivo + rotações) compartilham family_id.
+-- - Reuso de um token já rotacionado revoga a família inteira (um UPDATE pelo índice).
+-- - Logout revoga só a família da sessão atual, sem varrer todos os tokens do usuário.
+--
+-- Sem backfill: tokens existentes ficam com family_id NULL (família de um único
+-- token); a primeira rotação de um deles abre uma família nova e a grava
+-- também na linha antiga (AuthService.refresh). Um UPDATE de dezenas de
+-- milhões de linhas seria uma única transação com lock longo e pressão de undo,
+-- e UUID() não é seguro com replicação baseada em statement.
+-- Coluna NULL no fim da tabela + índice: um único ALTER, sem cópia da tabela.
+
+ALTER TABLE refresh_tokens
+    ADD COLUMN family_id VARCHAR(36) NULL,
+    ADD INDEX idx_rt_family (family_id);
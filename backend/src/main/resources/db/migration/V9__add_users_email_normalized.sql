@@ -0,0 +1,10 @@
+-- V9__add_users_email_normalized.sql
+-- Email normalizado (trim + minúsculas) para busca e unicidade case-insensitive,
+-- sem depender da collation de users.email.
+-- UNIQUE no InnoDB aceita vários NULLs: usuários só-OAuth sem email continuam
+-- possíveis (o motivo de V1 não ter UNIQUE em email).
+-- O preenchimento das linhas existentes é feito em lotes por V10 (Java).
+
+ALTER TABLE users
+    ADD COLUMN email_normalized VARCHAR(255) NULL AFTER email,
+    ADD CONSTRAINT uq_users_email_normalized UNIQUE (email_normalized);